@@ -3,6 +3,7 @@ package com.taskpal;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -11,7 +12,7 @@ import io.swagger.v3.oas.annotations.servers.Server;
 
 /**
  * Main application class.
- * Enables async processing for email sending.
+ * Enables async processing for email sending and scheduled background jobs.
  */
 @OpenAPIDefinition(
     info = @Info(
@@ -37,6 +38,7 @@ import io.swagger.v3.oas.annotations.servers.Server;
 )
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class TaskPalApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,89 @@
+package com.taskpal.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration routing read-only transactions to read replicas.
+ * Only active with {@code app.datasource.replicas.enabled=true}; otherwise Spring Boot's single data source is used.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    /**
+     * Create the primary pool from the regular {@code spring.datasource.*} settings.
+     *
+     * @param properties the data source properties
+     * @return the primary data source
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Create the router over the primary and one pool per replica.
+     *
+     * @param primaryDataSource the primary data source
+     * @param properties the data source properties, for default replica credentials
+     * @param replicaProperties the replica settings
+     * @param meterRegistry the registry for the healthy replica gauge
+     * @return the routing data source
+     */
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            DataSourceProperties properties, ReplicaProperties replicaProperties, MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.getUrls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaProperties.getUrls().get(i));
+            replica.setUsername(StringUtils.hasText(replicaProperties.getUsername())
+                    ? replicaProperties.getUsername() : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(replicaProperties.getPassword())
+                    ? replicaProperties.getPassword() : properties.determinePassword());
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            // Don't fail startup on a replica that is down; the health check ejects it
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                replicaProperties.getReadYourWrites(), replicaProperties.getMaxLag());
+        router.startHealthChecks(replicaProperties.getHealthCheckInterval());
+        Gauge.builder("taskpal.datasource.replicas.healthy", router, ReplicaRoutingDataSource::getHealthyReplicaCount)
+                .description("Read replicas currently in rotation")
+                .register(meterRegistry);
+        return router;
+    }
+
+    /**
+     * Expose the router behind a lazy proxy, so the route is chosen once the transaction's read-only flag is set.
+     *
+     * @param replicaRoutingDataSource the routing data source
+     * @return the data source used by JPA, JDBC and Flyway
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,44 @@
+package com.taskpal.config;
+
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.apache.v2.ApacheHttpTransport;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the Google API clients.
+ * Provides one pooled, keep-alive HTTP transport shared by every Google call.
+ */
+@Configuration
+public class GoogleApiConfig {
+
+    @Value("${google.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${google.http.max-connections-per-route:20}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${google.http.connection-ttl-seconds:300}")
+    private long connectionTtlSeconds;
+
+    /**
+     * Create the shared transport for Google OAuth and Calendar calls.
+     * Connections are pooled and kept alive, so TLS setup is paid once per connection instead of per call.
+     * The pool is closed through {@link HttpTransport#shutdown()} when the context stops.
+     *
+     * @return the HTTP transport
+     */
+    @Bean(destroyMethod = "shutdown")
+    public HttpTransport googleHttpTransport() {
+        HttpClientBuilder builder = ApacheHttpTransport.newDefaultHttpClientBuilder()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setConnectionTimeToLive(connectionTtlSeconds, TimeUnit.SECONDS)
+                .evictExpiredConnections();
+        return new ApacheHttpTransport(builder.build());
+    }
+}
@@ -0,0 +1,112 @@
+package com.taskpal.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.config.MeterFilterReply;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+/**
+ * Configuration for metrics and tracing.
+ * Request spans and timings, the Hikari pool, Hibernate statistics and scheduled jobs are instrumented by
+ * Spring Boot; this adds observations for service classes annotated with
+ * {@link io.micrometer.observation.annotation.Observed}, each of which is both a timer tagged by class and
+ * method and a span. Spans are exported over OTLP when {@code management.otlp.tracing.endpoint} is set.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    // Timers that were recorded with @Timed, tagged class, method and exception
+    private static final Set<String> SERVICE_TIMERS = Set.of("taskpal.tasks", "taskpal.calendar.google", "taskpal.email");
+    // Timer that was recorded by hand, without tags
+    private static final String EMAIL_SEND_TIMER = "taskpal.email.send";
+
+    /**
+     * Keep the timers that moved from {@code @Timed} to observations in their earlier shape, so dashboards and
+     * alerts on them still match: the {@code error} tag the observation handler adds is published as
+     * {@code exception} (same values, {@code none} or the exception's simple name), or dropped where there was
+     * no tag, and the {@code .active} long task timers the handler registers next to them are not published.
+     *
+     * @return the meter filter, applied by Spring Boot to every registry
+     */
+    @Bean
+    public MeterFilter observedTimerCompatibilityFilter() {
+        return new MeterFilter() {
+
+            @Override
+            public MeterFilterReply accept(Meter.Id id) {
+                if (id.getType() == Meter.Type.LONG_TASK_TIMER && id.getName().endsWith(".active")) {
+                    String timer = id.getName().substring(0, id.getName().length() - ".active".length());
+                    if (SERVICE_TIMERS.contains(timer) || EMAIL_SEND_TIMER.equals(timer)) {
+                        return MeterFilterReply.DENY;
+                    }
+                }
+                return MeterFilterReply.NEUTRAL;
+            }
+
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String error = id.getTag("error");
+                boolean serviceTimer = SERVICE_TIMERS.contains(id.getName());
+                if (error == null || !serviceTimer && !EMAIL_SEND_TIMER.equals(id.getName())) {
+                    return id;
+                }
+                List<Tag> tags = new ArrayList<>();
+                id.getTagsAsIterable().forEach(tag -> {
+                    if (!tag.getKey().equals("error")) {
+                        tags.add(tag);
+                    }
+                });
+                if (serviceTimer) {
+                    tags.add(Tag.of("exception", error));
+                }
+                return id.replaceTags(tags);
+            }
+        };
+    }
+
+    /**
+     * Observe {@code @Observed} service methods. Only calls through the Spring proxy are observed, so a service
+     * calling its own methods is measured once, at the outer call.
+     *
+     * @param observationRegistry the registry to record to
+     * @return the aspect
+     */
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Carry the current span into {@code @Async} and other Spring-managed executor tasks.
+     *
+     * @return the decorator, applied by Spring Boot to its task executors
+     */
+    @Bean
+    public ContextPropagatingTaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+
+    /**
+     * Also write finished spans as OTLP JSON lines to the log, for local runs without a collector; send them
+     * to a file with {@code logging.file.name}.
+     *
+     * @return the span exporter
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.tracing.log-spans", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskpal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica configuration bound from {@code app.datasource.replicas.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReplicaProperties {
+
+    /**
+     * Whether read-only transactions are routed to the replicas.
+     */
+    private boolean enabled = false;
+
+    /**
+     * JDBC URLs of the replicas.
+     */
+    private List<String> urls = new ArrayList<>();
+
+    /**
+     * Replica credentials; the primary's are used when unset.
+     */
+    private String username;
+    private String password;
+
+    /**
+     * Connection pool size per replica.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * After a user's write commits, their reads stay on the primary for this long. Zero disables it.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+
+    /**
+     * How often replica health and replication lag are checked.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Replicas lagging further behind than this are taken out of rotation until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+}
@@ -0,0 +1,216 @@
+package com.taskpal.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Data source sending read-only transactions of signed-in users to healthy replicas, round robin, and everything
+ * else to the primary.
+ * <p>
+ * Only request work is eligible: background jobs and the sign-in path run without a user and always read the
+ * primary, since they act on rows written moments earlier, such as outbox entries or a just-verified account.
+ * The routing decision is made when a connection is first needed, so it must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}; by then the transaction's
+ * read-only flag is known. When a user's read-write transaction commits, that user's reads stay on the
+ * primary for the read-your-writes window, so they never see a replica that has not caught up yet.
+ * Replicas are ejected when they fail to hand out a connection or when a health check finds them down
+ * or lagging, and rejoin once a check passes. With no healthy replica every read goes to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+	// Lag is zero when all received WAL has been replayed, so an idle primary does not look stale
+	private static final String LAG_SQL = """
+			SELECT CASE WHEN pg_is_in_recovery() AND pg_last_wal_receive_lsn() IS DISTINCT FROM pg_last_wal_replay_lsn()
+			            THEN COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+			            ELSE 0 END
+			""";
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final Duration maxLag;
+	private final Cache<String, Boolean> recentWriters;
+	private final AtomicInteger next = new AtomicInteger();
+	private ScheduledExecutorService healthChecker;
+
+	public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration readYourWrites,
+			Duration maxLag) {
+		this.primary = primary;
+		this.replicas = replicas.entrySet().stream().map(entry -> new Replica(entry.getKey(), entry.getValue()))
+				.toList();
+		this.maxLag = maxLag;
+		this.recentWriters = readYourWrites.isZero() ? null
+				: Caffeine.newBuilder().expireAfterWrite(readYourWrites).maximumSize(100_000).build();
+	}
+
+	/**
+	 * Check the replicas now and then every {@code interval} on a background thread.
+	 *
+	 * @param interval the time between checks
+	 */
+	public void startHealthChecks(Duration interval) {
+		healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "replica-health");
+			thread.setDaemon(true);
+			return thread;
+		});
+		healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return route(DataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return route(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	/**
+	 * @return the number of replicas currently in rotation
+	 */
+	public int getHealthyReplicaCount() {
+		return (int) replicas.stream().filter(replica -> replica.healthy).count();
+	}
+
+	void checkHealth() {
+		for (Replica replica : replicas) {
+			try (Connection connection = replica.dataSource.getConnection();
+					Statement statement = connection.createStatement();
+					ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+				resultSet.next();
+				double lagSeconds = resultSet.getDouble(1);
+				if (lagSeconds * 1000 > maxLag.toMillis()) {
+					eject(replica, "replication lag " + lagSeconds + "s");
+				} else if (!replica.healthy) {
+					replica.healthy = true;
+					logger.info("Replica {} is back in rotation", replica.name);
+				}
+			} catch (SQLException | RuntimeException e) {
+				eject(replica, e.getMessage());
+			}
+		}
+	}
+
+	private Connection route(ConnectionSource source) throws SQLException {
+		String user = currentUser();
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (user != null && !hasRecentWrite(user)) {
+				Connection connection = replicaConnection(source);
+				if (connection != null) {
+					return connection;
+				}
+			}
+		} else if (user != null) {
+			trackWrite(user);
+		}
+		return source.connect(primary);
+	}
+
+	private Connection replicaConnection(ConnectionSource source) throws SQLException {
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+			if (!replica.healthy) {
+				continue;
+			}
+			try {
+				return source.connect(replica.dataSource);
+			} catch (SQLFeatureNotSupportedException e) {
+				// Pools such as Hikari take no per-call credentials; that says nothing about the replica's health
+				throw e;
+			} catch (SQLException e) {
+				eject(replica, e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	private boolean hasRecentWrite(String user) {
+		return recentWriters != null && recentWriters.getIfPresent(user) != null;
+	}
+
+	// The window starts when the write is visible on the primary, i.e. after commit
+	private void trackWrite(String user) {
+		if (recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				recentWriters.put(user, Boolean.TRUE);
+			}
+		});
+	}
+
+	private String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+	}
+
+	private void eject(Replica replica, String reason) {
+		if (replica.healthy) {
+			replica.healthy = false;
+			logger.warn("Replica {} taken out of rotation: {}", replica.name, reason);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (healthChecker != null) {
+			healthChecker.shutdownNow();
+		}
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof Closeable closeable) {
+				closeable.close();
+			}
+		}
+	}
+
+	// How a connection is taken from the chosen data source: with its own or with the caller's credentials
+	@FunctionalInterface
+	private interface ConnectionSource {
+
+		Connection connect(DataSource dataSource) throws SQLException;
+	}
+
+	private static final class Replica {
+
+		private final String name;
+		private final DataSource dataSource;
+		private volatile boolean healthy = true;
+
+		private Replica(String name, DataSource dataSource) {
+			this.name = name;
+			this.dataSource = dataSource;
+		}
+	}
+}
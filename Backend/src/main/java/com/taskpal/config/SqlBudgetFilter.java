@@ -0,0 +1,82 @@
+package com.taskpal.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Filter counting the SQL statements and database time of each request and warning when a route goes over
+ * its budget, which is how N+1 queries from lazy associations show up.
+ * Runs ahead of the security filters, so the user lookup of the JWT filter is counted too.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlMonitorProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public SqlBudgetFilter(SqlMonitorProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!properties.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        SqlStatementListener.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementListener.Stats stats = SqlStatementListener.end();
+            check(request, stats);
+        }
+    }
+
+    private void check(HttpServletRequest request, SqlStatementListener.Stats stats) {
+        // Route patterns keep the meter tags bounded; unmatched requests such as 404s are grouped
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String route = request.getMethod() + " " + uri;
+
+        DistributionSummary.builder("taskpal.http.sql.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder("taskpal.http.sql.time")
+                .description("Database time per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(Duration.ofMillis(stats.getMillis()));
+
+        int budget = properties.statementBudgetFor(route);
+        if (stats.getStatements() > budget || stats.getMillis() > properties.getTimeBudget().toMillis()) {
+            logger.warn("{} ran {} SQL statements in {} ms, over its budget of {} statements and {} ms",
+                    route, stats.getStatements(), stats.getMillis(), budget, properties.getTimeBudget().toMillis());
+        }
+    }
+}
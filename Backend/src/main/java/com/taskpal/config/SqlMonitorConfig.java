@@ -0,0 +1,47 @@
+package com.taskpal.config;
+
+import com.taskpal.service.SlowQueryLog;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration wrapping the application data source in a JDBC proxy that reports every statement to a
+ * {@link SqlStatementListener}, for per-request statement budgets and the slow query log.
+ * Replaces {@code spring.jpa.show-sql}, which logged every statement without timing.
+ */
+@Configuration
+public class SqlMonitorConfig {
+
+    /**
+     * Wrap the {@code dataSource} bean, whether it is Spring Boot's pool or the replica router's proxy.
+     * Static so it is registered before the data source is created.
+     *
+     * @param properties the monitoring settings
+     * @param slowQueryLog the slow query log
+     * @param observationRegistry the registry for statement spans
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor sqlMonitorDataSourcePostProcessor(ObjectProvider<SqlMonitorProperties> properties,
+            ObjectProvider<SlowQueryLog> slowQueryLog, ObjectProvider<ObservationRegistry> observationRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)
+                        || !properties.getObject().isEnabled()) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create("dataSource", dataSource)
+                        .listener(new SqlStatementListener(dataSource, slowQueryLog.getObject(), properties.getObject(),
+                                observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)))
+                        .build();
+            }
+        };
+    }
+}
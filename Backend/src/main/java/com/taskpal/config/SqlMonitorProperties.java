@@ -0,0 +1,64 @@
+package com.taskpal.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL monitoring configuration bound from {@code app.sql-monitor.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.sql-monitor")
+public class SqlMonitorProperties {
+
+    /**
+     * Whether statements are counted and timed at the data source.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Statements a request may run before a warning is logged.
+     */
+    private int statementBudget = 20;
+
+    /**
+     * Per-route statement budgets overriding the default, keyed by method and route pattern,
+     * e.g. {@code app.sql-monitor.budgets[GET /api/tasks]=10}.
+     */
+    private Map<String, Integer> budgets = new LinkedHashMap<>();
+
+    /**
+     * Database time a request may spend before a warning is logged.
+     */
+    private Duration timeBudget = Duration.ofMillis(500);
+
+    /**
+     * Statements running at least this long are captured in the slow query log.
+     */
+    private Duration slowThreshold = Duration.ofMillis(200);
+
+    /**
+     * Number of slow statements kept; the oldest are dropped first.
+     */
+    private int slowQueryCapacity = 100;
+
+    /**
+     * Whether slow statements are captured with their {@code EXPLAIN} plan.
+     */
+    private boolean explain = true;
+
+    /**
+     * Budget for a route, e.g. {@code GET /api/tasks/{id}}.
+     *
+     * @param route the method and route pattern
+     * @return the statement budget
+     */
+    public int statementBudgetFor(String route) {
+        return budgets.getOrDefault(route, statementBudget);
+    }
+}
@@ -0,0 +1,119 @@
+package com.taskpal.config;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.taskpal.service.SlowQueryLog;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Listener on the proxied data source counting statements and database time for the current request and
+ * handing slow statements to the {@link SlowQueryLog}.
+ * <p>
+ * Counts are kept per thread between {@link #begin()} and {@link #end()}, which {@link SqlBudgetFilter} calls
+ * around each request. Statements run outside a request, such as by scheduled jobs, are only checked for
+ * slowness. Statements run inside a traced operation also get a span of their own; those without one, such
+ * as Flyway's at startup, don't start a trace.
+ */
+public class SqlStatementListener implements QueryExecutionListener {
+
+	private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+	private static final String STARTED_AT = "taskpal.startedAt";
+	private static final String OBSERVATION = "taskpal.observation";
+
+	private final DataSource target;
+	private final SlowQueryLog slowQueryLog;
+	private final long slowThresholdNanos;
+	private final ObservationRegistry observationRegistry;
+
+	/**
+	 * @param target the unproxied data source, used to explain slow statements without counting them
+	 * @param slowQueryLog where slow statements go
+	 * @param properties the monitoring settings
+	 * @param observationRegistry the registry for statement spans
+	 */
+	public SqlStatementListener(DataSource target, SlowQueryLog slowQueryLog, SqlMonitorProperties properties,
+			ObservationRegistry observationRegistry) {
+		this.target = target;
+		this.slowQueryLog = slowQueryLog;
+		this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+		this.observationRegistry = observationRegistry;
+	}
+
+	/**
+	 * Start counting statements on this thread.
+	 */
+	public static void begin() {
+		CURRENT.set(new Stats());
+	}
+
+	/**
+	 * Stop counting statements on this thread.
+	 *
+	 * @return the statements run since {@link #begin()}
+	 */
+	public static Stats end() {
+		Stats stats = CURRENT.get();
+		CURRENT.remove();
+		return stats;
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		if (observationRegistry.getCurrentObservation() != null) {
+			execInfo.addCustomValue(OBSERVATION, Observation.createNotStarted("taskpal.jdbc.query", observationRegistry)
+					.contextualName("query")
+					.highCardinalityKeyValue("db.statement", queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery())
+					.start());
+		}
+		execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		long elapsedNanos = System.nanoTime() - execInfo.getCustomValue(STARTED_AT, Long.class);
+		Observation observation = execInfo.getCustomValue(OBSERVATION, Observation.class);
+		if (observation != null) {
+			if (execInfo.getThrowable() != null) {
+				observation.error(execInfo.getThrowable());
+			}
+			observation.stop();
+		}
+		Stats stats = CURRENT.get();
+		if (stats != null) {
+			// A batch is one round trip, however many rows it carries
+			stats.statements++;
+			stats.nanos += elapsedNanos;
+		}
+		if (elapsedNanos >= slowThresholdNanos && queryInfoList.size() == 1) {
+			QueryInfo query = queryInfoList.get(0);
+			slowQueryLog.record(target, query.getQuery(),
+					query.getParametersList().isEmpty() ? List.of() : query.getParametersList().get(0),
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+		}
+	}
+
+	/**
+	 * Statements run by one request.
+	 */
+	public static final class Stats {
+
+		private int statements;
+		private long nanos;
+
+		public int getStatements() {
+			return statements;
+		}
+
+		public long getMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(nanos);
+		}
+	}
+}
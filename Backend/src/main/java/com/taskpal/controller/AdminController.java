@@ -0,0 +1,48 @@
+package com.taskpal.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.taskpal.dto.ApiResponse;
+import com.taskpal.service.SlowQueryLog;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Controller for operational endpoints (admin only).
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class AdminController {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Get the most recent slow SQL statements with their plans.
+     *
+     * @return the response entity with the slow statements, newest first
+     */
+    @GetMapping("/slow-queries")
+    public ResponseEntity<ApiResponse<List<SlowQueryLog.SlowQuery>>> getSlowQueries() {
+        return ResponseEntity.ok(ApiResponse.success(slowQueryLog.getEntries(), "Slow queries retrieved successfully"));
+    }
+
+    /**
+     * Clear the slow query log, e.g. after a fix is deployed.
+     *
+     * @return the response entity
+     */
+    @DeleteMapping("/slow-queries")
+    public ResponseEntity<ApiResponse> clearSlowQueries() {
+        slowQueryLog.clear();
+        return ResponseEntity.ok(new ApiResponse<>(true, "Slow queries cleared successfully"));
+    }
+}
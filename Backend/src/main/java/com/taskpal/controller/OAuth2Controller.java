@@ -1,13 +1,18 @@
 package com.taskpal.controller;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.taskpal.dto.ApiResponse;
+import com.taskpal.dto.CalendarBackfillStatus;
 import com.taskpal.model.User;
 import com.taskpal.repository.UserRepository;
+import com.taskpal.service.CalendarBackfillService;
 import com.taskpal.service.GoogleCalendarService;
 import com.taskpal.service.contextService;
 
@@ -16,13 +21,16 @@ import com.taskpal.service.contextService;
 public class OAuth2Controller {
 
 	private final GoogleCalendarService googleCalendarService;
+	private final CalendarBackfillService calendarBackfillService;
 	private final UserRepository userRepository;
 	private final contextService contextService;
 	@Value("${app.email.verification.url}")
     private String verificationBaseUrl;
 
-	public OAuth2Controller(GoogleCalendarService googleCalendarService, UserRepository userRepository,contextService contextService) {
+	public OAuth2Controller(GoogleCalendarService googleCalendarService, CalendarBackfillService calendarBackfillService,
+			UserRepository userRepository,contextService contextService) {
 		this.googleCalendarService = googleCalendarService;
+		this.calendarBackfillService = calendarBackfillService;
 		this.userRepository = userRepository;
 		this.contextService=contextService;
 	}
@@ -36,11 +44,23 @@ public class OAuth2Controller {
 	@GetMapping("/google/callback")
 	public String oauth2Callback(@RequestParam String code, @RequestParam String state) throws Exception {
 		Long userId = Long.parseLong(state);
-		googleCalendarService.storeCredentials(code, userId);
+		User user = googleCalendarService.storeCredentials(code, userId);
+		calendarBackfillService.start(user);
 		String redirectHtml = "<html><head><script>window.location.replace('" + verificationBaseUrl
 				+ "');</script></head><body></body></html>";
 
 		return redirectHtml;
 	}
 
+	@GetMapping("/google/backfill")
+	public ResponseEntity<ApiResponse<CalendarBackfillStatus>> backfillStatus() {
+		User currentUser = contextService.getCurrentUser();
+		CalendarBackfillStatus status = calendarBackfillService.getStatus(currentUser.getId());
+		if (status == null) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND)
+					.body(ApiResponse.error("No calendar backfill found", HttpStatus.NOT_FOUND));
+		}
+		return ResponseEntity.ok(ApiResponse.success(status, "Calendar backfill status retrieved successfully"));
+	}
+
 }
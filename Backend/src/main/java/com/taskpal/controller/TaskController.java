@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,13 +13,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.taskpal.dto.ApiResponse;
 import com.taskpal.dto.TaskRequestDto;
 import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.service.TaskEventStream;
 import com.taskpal.service.TaskService;
 
 import lombok.RequiredArgsConstructor;
@@ -29,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 public class TaskController {
 	
     private final TaskService taskService;
+    private final TaskEventStream taskEventStream;
     
     @PostMapping
     public ResponseEntity<ApiResponse<TaskResponseDto>> addTask(@RequestBody TaskRequestDto dto) throws IOException, GeneralSecurityException {
@@ -44,6 +50,16 @@ public class TaskController {
         return ResponseEntity.ok(ApiResponse.success(updatedTask, "Updated Task successfully"));
     }
     
+    /**
+     * Partial update with a JSON Merge Patch: only the supplied fields change, e.g. {@code {"title": "New"}}.
+     */
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ApiResponse<TaskResponseDto>> patchTask(@PathVariable Long id,
+                                                      @RequestBody JsonNode patch) {
+        TaskResponseDto patchedTask = taskService.patchTask(id, patch);
+        return ResponseEntity.ok(ApiResponse.success(patchedTask, "Updated Task successfully"));
+    }
+    
     @GetMapping()
     public ResponseEntity<ApiResponse<List<TaskResponseDto>>> getTask() {
     	
@@ -51,6 +67,16 @@ public class TaskController {
         return ResponseEntity.ok(ApiResponse.success(task, "Updated Task successfully"));
     }
     
+    /**
+     * Server-Sent Events stream of the user's task changes, named CREATED, UPDATED, COMPLETED, REORDERED
+     * and DELETED. A reconnect with {@code Last-Event-ID} resumes where it left off; a {@code resync} event
+     * means the list has to be fetched again.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskEventStream.subscribe(lastEventId);
+    }
+    
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse> deleteTask(@PathVariable Long id) throws IOException, GeneralSecurityException {
         taskService.deleteTask(id);
@@ -68,8 +94,9 @@ public class TaskController {
     @PatchMapping("/{id}/{completed}")
     public ResponseEntity<ApiResponse> markTaskCompleted(
             @PathVariable Long id,
-            @PathVariable boolean completed) {
-    	taskService.markCompleteTask(id, completed);
+            @PathVariable boolean completed,
+            @RequestParam(required = false) Long version) {
+    	taskService.markCompleteTask(id, completed, version);
         return ResponseEntity.ok(new ApiResponse<>(true, "Task Priority Updated SucessFully "));
     }
 }
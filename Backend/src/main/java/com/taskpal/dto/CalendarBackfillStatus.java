@@ -0,0 +1,29 @@
+package com.taskpal.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO reporting the progress of a Google Calendar backfill.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarBackfillStatus {
+
+	public enum State {
+		RUNNING, COMPLETED, FAILED
+	}
+
+	private State state;
+	private int total;
+	private int synced;
+	private int failed;
+	private LocalDateTime startedAt;
+	private LocalDateTime finishedAt;
+}
@@ -0,0 +1,17 @@
+package com.taskpal.dto;
+
+import com.taskpal.model.TaskEventType;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEventDto {
+
+	private TaskEventType type;
+	private Long taskId;
+	private TaskResponseDto task; // state after the change, with subtasks; null for DELETED
+}
@@ -13,4 +13,5 @@ public class TaskRequestDto {
 	private int weight; // 1–5
 	private int priority;
 	private Long parentTaskId;
+	private Long version; // version the edit is based on; a stale one is rejected with 409
 }
@@ -15,5 +15,6 @@ public class TaskResponseDto {
     private int priority;
     private boolean completed;
     private Long parentTaskId;
+    private long version;
     private List<TaskResponseDto> subtasks;
 }
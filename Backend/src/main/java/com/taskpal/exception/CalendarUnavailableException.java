@@ -0,0 +1,27 @@
+package com.taskpal.exception;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when a Google Calendar call is rejected without being attempted,
+ * because the circuit breaker is open or the bulkhead is full.
+ */
+public class CalendarUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new CalendarUnavailableException.
+     *
+     * @param message the detail message
+     * @param retryAfter how long callers should wait before trying again
+     */
+    public CalendarUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
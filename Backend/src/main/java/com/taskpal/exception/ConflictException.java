@@ -0,0 +1,24 @@
+package com.taskpal.exception;
+
+/**
+ * Exception thrown when an update was based on a stale version of a resource.
+ */
+public class ConflictException extends RuntimeException {
+
+    private final transient Object current;
+
+    /**
+     * Constructs a new ConflictException.
+     *
+     * @param message the detail message
+     * @param current the current state of the resource, returned so the client can merge without re-reading it
+     */
+    public ConflictException(String message, Object current) {
+        super(message);
+        this.current = current;
+    }
+
+    public Object getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,10 @@
+package com.taskpal.model;
+
+/**
+ * Enum representing the task fields that are visible on a Google Calendar event.
+ */
+public enum CalendarEventField {
+    TITLE,          // Event summary
+    DESCRIPTION,    // Event description
+    DUE_DATE        // Event start and end
+}
@@ -0,0 +1,33 @@
+package com.taskpal.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stores a set of {@link CalendarEventField} as a comma-separated column.
+ */
+@Converter
+public class CalendarEventFieldsConverter implements AttributeConverter<Set<CalendarEventField>, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Set<CalendarEventField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        return fields.stream().map(Enum::name).collect(Collectors.joining(","));
+    }
+
+    @Override
+    public Set<CalendarEventField> convertToEntityAttribute(String column) {
+        Set<CalendarEventField> fields = EnumSet.noneOf(CalendarEventField.class);
+        if (column != null && !column.isBlank()) {
+            Arrays.stream(column.split(",")).map(CalendarEventField::valueOf).forEach(fields::add);
+        }
+        return fields;
+    }
+}
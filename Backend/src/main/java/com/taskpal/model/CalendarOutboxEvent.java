@@ -0,0 +1,67 @@
+package com.taskpal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Entity representing a pending Google Calendar side effect.
+ * Rows are written in the same transaction as the task change and drained by the calendar sync worker.
+ */
+@Entity
+@Table(name = "calendar_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CalendarSyncOperation operation;
+
+    @Column(nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * Event ID captured at enqueue time, needed for deletes once the task row is gone.
+     */
+    private String googleEventId;
+
+    /**
+     * Calendar-visible fields changed by an update; the worker patches only these.
+     */
+    @Convert(converter = CalendarEventFieldsConverter.class)
+    private Set<CalendarEventField> changedFields;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean failed;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
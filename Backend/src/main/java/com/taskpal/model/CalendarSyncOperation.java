@@ -0,0 +1,10 @@
+package com.taskpal.model;
+
+/**
+ * Enum representing the Google Calendar side effect recorded for a task.
+ */
+public enum CalendarSyncOperation {
+    CREATE,    // Insert a calendar event for a new task
+    UPDATE,    // Push task changes to the existing event
+    DELETE     // Remove the event of a deleted task
+}
@@ -0,0 +1,38 @@
+package com.taskpal.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a lease on a scheduled job, or on one partition of a job, held by a single node.
+ * Rows are only written through {@link com.taskpal.service.JobCoordinator}; times come from the database clock.
+ */
+@Entity
+@Table(name = "job_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobLease {
+
+    /**
+     * Job name, suffixed with {@code #<partition>} for partitioned jobs.
+     */
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 200)
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+
+    /**
+     * When the last successful run finished, used to keep other nodes from repeating it.
+     */
+    private LocalDateTime completedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -13,8 +14,13 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * A user's task. Updates only write the columns that changed, so small edits such as a title change or a
+ * reorder don't rewrite the description and every index on the row.
+ */
 @Entity
 @Table(name = "task")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -52,6 +58,13 @@ public class Task {
     private User user;
 
     private String googleEventId;
+
+    /**
+     * Optimistic locking version, bumped on every update; a stale write fails instead of overwriting.
+     */
+    @Version
+    @Column(nullable = false)
+    private long version;
     
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
@@ -0,0 +1,12 @@
+package com.taskpal.model;
+
+/**
+ * Enum representing the change to a task pushed to the owner's open event streams.
+ */
+public enum TaskEventType {
+    CREATED,    // A task or subtask was added
+    UPDATED,    // Fields were edited with a PUT or a merge patch
+    COMPLETED,  // Completion was toggled, together with its subtasks
+    REORDERED,  // Priority changed by a drag and drop
+    DELETED     // The task and its subtasks are gone
+}
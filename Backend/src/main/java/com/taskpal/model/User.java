@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -69,6 +70,18 @@ public class User {
     @Column
     private String googleCalendarRefreshToken;
 
+    @Column
+    private LocalDateTime googleCalendarTokenExpiry;
+
+    @Column(length = 512)
+    private String googleCalendarSyncToken;
+
+    @Column
+    private LocalDateTime googleCalendarNextPullAt;
+
+    @Column
+    private LocalDate lastDigestDate;
+
     /**
      * Generates a new verification token for email verification.
      * @return The generated verification token
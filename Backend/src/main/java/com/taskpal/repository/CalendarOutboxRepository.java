@@ -0,0 +1,68 @@
+package com.taskpal.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.taskpal.model.CalendarOutboxEvent;
+
+public interface CalendarOutboxRepository extends JpaRepository<CalendarOutboxEvent, Long> {
+
+	/**
+	 * Lock the oldest due rows, skipping rows locked by other nodes. A row is only eligible when no
+	 * older row for the same task is still pending, which keeps per-task ordering.
+	 */
+	@Query(value = """
+			SELECT o.* FROM calendar_outbox o
+			WHERE o.failed = false
+			  AND o.next_attempt_at <= :now
+			  AND (o.locked_until IS NULL OR o.locked_until < :now)
+			  AND NOT EXISTS (SELECT 1 FROM calendar_outbox p
+			                  WHERE p.task_id = o.task_id AND p.failed = false AND p.id < o.id)
+			ORDER BY o.id
+			LIMIT :limit
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<CalendarOutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+	/**
+	 * Lock the task's latest pending row if it is an update no worker has claimed or tried yet. A row being
+	 * claimed right now is skipped rather than waited for, and once claimed its {@code locked_until} no longer
+	 * matches, so a merge never races the worker sending and deleting the row.
+	 */
+	@Query(value = """
+			SELECT o.* FROM calendar_outbox o
+			WHERE o.id = (SELECT max(p.id) FROM calendar_outbox p WHERE p.task_id = :taskId AND p.failed = false)
+			  AND o.operation = 'UPDATE'
+			  AND o.failed = false
+			  AND o.attempts = 0
+			  AND o.locked_until IS NULL
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	Optional<CalendarOutboxEvent> lockMergeableUpdate(@Param("taskId") Long taskId);
+
+	/**
+	 * Make debounced updates due immediately, used to flush them on shutdown.
+	 */
+	@Modifying
+	@Transactional
+	@Query("""
+			UPDATE CalendarOutboxEvent e SET e.nextAttemptAt = :now
+			WHERE e.operation = com.taskpal.model.CalendarSyncOperation.UPDATE
+			  AND e.failed = false AND e.attempts = 0 AND e.lockedUntil IS NULL AND e.nextAttemptAt > :now
+			""")
+	int releaseDebouncedUpdates(@Param("now") LocalDateTime now);
+
+	@Query("SELECT DISTINCT e.taskId FROM CalendarOutboxEvent e WHERE e.failed = false AND e.taskId IN :taskIds")
+	Set<Long> findPendingTaskIds(@Param("taskIds") Collection<Long> taskIds);
+
+	long countByFailedFalse();
+}
@@ -0,0 +1,31 @@
+package com.taskpal.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.taskpal.model.EmailOutboxMessage;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+	/**
+	 * Lock the oldest due messages, skipping rows locked by other nodes.
+	 */
+	@Query(value = """
+			SELECT m.* FROM email_outbox m
+			WHERE m.failed = false
+			  AND m.next_attempt_at <= :now
+			  AND (m.locked_until IS NULL OR m.locked_until < :now)
+			ORDER BY m.id
+			LIMIT :limit
+			FOR UPDATE SKIP LOCKED
+			""", nativeQuery = true)
+	List<EmailOutboxMessage> lockDueMessages(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+	long countByFailedFalse();
+
+	long countByFailedTrue();
+}
@@ -1,11 +1,14 @@
 package com.taskpal.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.taskpal.model.Task;
 import com.taskpal.model.User;
@@ -19,10 +22,17 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 	List<Task> findByUser(User user);
 
 	List<Task> findByParentTaskAndUser(Task parentTask, User user);
+
+	List<Task> findByUserIdAndGoogleEventIdIsNullOrderById(Long userId);
+
+	List<Task> findByUserIdAndGoogleEventIdIn(Long userId, Collection<String> googleEventIds);
 	
 	@Query("SELECT MAX(t.priorityScore) FROM Task t WHERE t.user.id = :userId")
 	Integer findMaxPriorityScoreByUserId(@Param("userId") Long userId);
-	
-	
+
+	@Modifying
+	@Transactional
+	@Query("UPDATE Task t SET t.googleEventId = :eventId WHERE t.id = :taskId AND t.googleEventId IS NULL")
+	int updateGoogleEventId(@Param("taskId") Long taskId, @Param("eventId") String eventId);
 
 }
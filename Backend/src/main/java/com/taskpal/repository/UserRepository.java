@@ -1,10 +1,17 @@
 package com.taskpal.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.taskpal.model.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -34,4 +41,104 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return an Optional containing the user if found, empty otherwise
      */
     Optional<User> findByVerificationToken(String token);
+
+    /**
+     * Find Google-linked users with recent task activity whose access token expires before the given time.
+     * Keyset-paginated by user ID.
+     * @param before the expiry cutoff
+     * @param activeSince only users with a task updated after this time
+     * @param afterId the last user ID of the previous page, or one less than the first ID of the range
+     * @param toId the first user ID after the range
+     * @param limit the page size
+     * @return the users, ordered by ID
+     */
+    @Query("""
+            SELECT u FROM User u
+            WHERE u.google = true
+              AND u.googleCalendarRefreshToken IS NOT NULL
+              AND (u.googleCalendarTokenExpiry IS NULL OR u.googleCalendarTokenExpiry < :before)
+              AND u.id > :afterId AND u.id < :toId
+              AND EXISTS (SELECT 1 FROM Task t WHERE t.user = u AND t.updatedAt > :activeSince)
+            ORDER BY u.id
+            """)
+    List<User> findActiveWithTokenExpiringBefore(@Param("before") LocalDateTime before,
+            @Param("activeSince") LocalDateTime activeSince, @Param("afterId") Long afterId,
+            @Param("toId") Long toId, Limit limit);
+
+    /**
+     * @return the highest user ID, or 0 without users
+     */
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM User u")
+    long findMaxId();
+
+    /**
+     * Persist refreshed Google tokens without touching the rest of the row.
+     * @param userId the user ID
+     * @param accessToken the new access token
+     * @param refreshToken the rotated refresh token, or null to keep the current one
+     * @param expiry when the new access token expires
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE User u SET u.googleCalendarAccessToken = :accessToken,
+                u.googleCalendarRefreshToken = COALESCE(:refreshToken, u.googleCalendarRefreshToken),
+                u.googleCalendarTokenExpiry = :expiry
+            WHERE u.id = :userId
+            """)
+    int updateGoogleTokens(@Param("userId") Long userId, @Param("accessToken") String accessToken,
+            @Param("refreshToken") String refreshToken, @Param("expiry") LocalDateTime expiry);
+
+    /**
+     * Disconnect a user's calendar after Google rejected their grant, e.g. because they revoked access.
+     * They connect it again through the OAuth flow.
+     * @param userId the user ID
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE User u SET u.google = false, u.googleCalendarAccessToken = NULL,
+                u.googleCalendarRefreshToken = NULL, u.googleCalendarTokenExpiry = NULL,
+                u.googleCalendarSyncToken = NULL, u.googleCalendarNextPullAt = NULL
+            WHERE u.id = :userId
+            """)
+    int unlinkGoogle(@Param("userId") Long userId);
+
+    /**
+     * Find Google-linked users whose calendar pull is due.
+     * @param now the current time
+     * @param limit the maximum number of users
+     * @return the users
+     */
+    @Query("""
+            SELECT u FROM User u
+            WHERE u.google = true AND u.googleCalendarAccessToken IS NOT NULL
+              AND (u.googleCalendarNextPullAt IS NULL OR u.googleCalendarNextPullAt <= :now)
+            ORDER BY u.googleCalendarNextPullAt NULLS FIRST
+            """)
+    List<User> findDueForCalendarPull(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Claim a user's calendar pull by moving its next pull time forward.
+     * Only one node wins, since the row is only updated while the pull is still due.
+     * @param userId the user ID
+     * @param now the current time
+     * @param next the next pull time
+     * @return 1 if the pull was claimed, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE User u SET u.googleCalendarNextPullAt = :next
+            WHERE u.id = :userId AND (u.googleCalendarNextPullAt IS NULL OR u.googleCalendarNextPullAt <= :now)
+            """)
+    int claimCalendarPull(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+            @Param("next") LocalDateTime next);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.googleCalendarSyncToken = :syncToken WHERE u.id = :userId")
+    int updateGoogleSyncToken(@Param("userId") Long userId, @Param("syncToken") String syncToken);
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.taskpal.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limiting configuration bound from {@code app.rate-limit.*}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether the rate limiting filter is active.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the number of buckets kept in memory.
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Buckets not touched for this long are evicted.
+     */
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    /**
+     * Route group policies, evaluated in order; the first match wins.
+     */
+    private List<Policy> policies = new ArrayList<>();
+
+    /**
+     * How a bucket key is derived from the request.
+     */
+    public enum KeyType {
+        USER,   // Authenticated principal, falls back to IP for anonymous requests
+        IP      // Remote address
+    }
+
+    /**
+     * A rate limit applied to one group of routes.
+     */
+    @Data
+    public static class Policy {
+        private String name;
+        private List<String> paths = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private KeyType keyBy = KeyType.USER;
+        private int capacity = 60;
+        private int refillPerMinute = 60;
+    }
+}
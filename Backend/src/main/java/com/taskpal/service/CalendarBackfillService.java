@@ -0,0 +1,232 @@
+package com.taskpal.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.taskpal.dto.CalendarBackfillStatus;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.TaskRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background job creating calendar events for a user's existing tasks after they connect Google Calendar.
+ * Inserts are sent through the Calendar batch API, chunks run with bounded parallelism and event IDs
+ * are written back with batched UPDATEs. Tasks whose insert failed, including whole chunks rejected while
+ * the circuit is open, are queued in the calendar outbox so the sync worker retries them.
+ */
+@Service
+public class CalendarBackfillService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarBackfillService.class);
+
+	private final TaskRepository taskRepository;
+	private final GoogleCalendarService googleCalendarService;
+	private final GoogleCalendarClientCache calendarClientCache;
+	private final CalendarCircuitBreaker circuitBreaker;
+	private final CalendarOutboxService outboxService;
+	private final JdbcTemplate jdbcTemplate;
+	private final int batchSize;
+	private final ExecutorService jobExecutor;
+	private final ExecutorService batchExecutor;
+	private final Cache<Long, Progress> progressByUser = Caffeine.newBuilder()
+			.expireAfterWrite(Duration.ofHours(6))
+			.maximumSize(10_000)
+			.build();
+
+	public CalendarBackfillService(TaskRepository taskRepository, GoogleCalendarService googleCalendarService,
+			GoogleCalendarClientCache calendarClientCache, CalendarCircuitBreaker circuitBreaker,
+			CalendarOutboxService outboxService, JdbcTemplate jdbcTemplate,
+			@Value("${app.calendar-backfill.batch-size:50}") int batchSize,
+			@Value("${app.calendar-backfill.concurrent-jobs:2}") int concurrentJobs,
+			@Value("${app.calendar-backfill.parallelism:4}") int parallelism) {
+		this.taskRepository = taskRepository;
+		this.googleCalendarService = googleCalendarService;
+		this.calendarClientCache = calendarClientCache;
+		this.circuitBreaker = circuitBreaker;
+		this.outboxService = outboxService;
+		this.jdbcTemplate = jdbcTemplate;
+		this.batchSize = batchSize;
+		this.jobExecutor = Executors.newFixedThreadPool(concurrentJobs, daemonThreads("calendar-backfill-job-"));
+		this.batchExecutor = Executors.newFixedThreadPool(parallelism, daemonThreads("calendar-backfill-batch-"));
+	}
+
+	/**
+	 * Start a backfill for the user unless one is already running.
+	 *
+	 * @param user the user who just linked their calendar
+	 */
+	public void start(User user) {
+		Progress progress = new Progress();
+		Progress running = progressByUser.asMap().compute(user.getId(),
+				(id, existing) -> existing != null && existing.state == CalendarBackfillStatus.State.RUNNING
+						? existing : progress);
+		if (running == progress) {
+			jobExecutor.execute(() -> run(user, progress));
+		}
+	}
+
+	/**
+	 * Get the progress of the user's latest backfill.
+	 *
+	 * @param userId the user ID
+	 * @return the status, or null if no backfill ran recently
+	 */
+	public CalendarBackfillStatus getStatus(Long userId) {
+		Progress progress = progressByUser.getIfPresent(userId);
+		return progress == null ? null : progress.snapshot();
+	}
+
+	private void run(User user, Progress progress) {
+		try {
+			List<Task> tasks = taskRepository.findByUserIdAndGoogleEventIdIsNullOrderById(user.getId());
+			progress.total = tasks.size();
+			Calendar service = calendarClientCache.get(user);
+
+			List<CompletableFuture<Void>> chunks = new ArrayList<>();
+			for (int from = 0; from < tasks.size(); from += batchSize) {
+				List<Task> chunk = tasks.subList(from, Math.min(from + batchSize, tasks.size()));
+				chunks.add(CompletableFuture.runAsync(() -> syncChunk(user, service, chunk, progress),
+						batchExecutor));
+			}
+			CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+			progress.state = CalendarBackfillStatus.State.COMPLETED;
+			logger.info("Calendar backfill for user {} finished: {} synced, {} failed", user.getId(),
+					progress.synced.get(), progress.failed.get());
+		} catch (Exception e) {
+			progress.state = CalendarBackfillStatus.State.FAILED;
+			logger.error("Calendar backfill for user {} failed: {}", user.getId(), e.getMessage());
+		} finally {
+			progress.finishedAt = LocalDateTime.now();
+		}
+	}
+
+	private void syncChunk(User user, Calendar service, List<Task> chunk, Progress progress) {
+		List<Object[]> updates = new ArrayList<>(chunk.size());
+		List<Task> failed = new ArrayList<>();
+		// Tasks the batch has not answered for yet; all of them if it never ran
+		List<Task> pending = new ArrayList<>(chunk);
+		try {
+			BatchRequest batch = service.batch();
+			for (Task task : chunk) {
+				service.events().insert("primary", googleCalendarService.buildEvent(task))
+						.queue(batch, new JsonBatchCallback<Event>() {
+							@Override
+							public void onSuccess(Event event, HttpHeaders responseHeaders) {
+								pending.remove(task);
+								updates.add(new Object[] { event.getId(), task.getId() });
+							}
+
+							@Override
+							public void onFailure(GoogleJsonError error, HttpHeaders responseHeaders) {
+								logger.warn("Failed to sync task {}: {}", task.getId(), error.getMessage());
+								pending.remove(task);
+								failed.add(task);
+							}
+						});
+			}
+			circuitBreaker.call(user.getId(), () -> {
+				batch.execute();
+				return null;
+			});
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Calendar batch of {} tasks failed: {}", chunk.size(), e.getMessage());
+			failed.addAll(pending);
+		}
+		if (!failed.isEmpty()) {
+			progress.failed.addAndGet(failed.size());
+			retryLater(user, failed);
+		}
+
+		if (updates.isEmpty()) {
+			return;
+		}
+		int[] counts = jdbcTemplate.batchUpdate(
+				"UPDATE task SET google_event_id = ? WHERE id = ? AND google_event_id IS NULL", updates);
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0) {
+				// Task was deleted or synced by the outbox worker meanwhile, drop the duplicate event
+				discardEvent(user, (String) updates.get(i)[0]);
+			} else {
+				progress.synced.incrementAndGet();
+			}
+		}
+	}
+
+	// Hands failed inserts to the outbox worker, which retries them with backoff once Google is healthy again
+	private void retryLater(User user, List<Task> tasks) {
+		try {
+			outboxService.enqueueCreates(user, tasks);
+		} catch (RuntimeException e) {
+			logger.error("Failed to queue {} calendar events for retry: {}", tasks.size(), e.getMessage());
+		}
+	}
+
+	private void discardEvent(User user, String eventId) {
+		try {
+			googleCalendarService.deleteCalendarEvent(user, eventId);
+		} catch (IOException e) {
+			logger.warn("Failed to delete duplicate event {}: {}", eventId, e.getMessage());
+		}
+	}
+
+	private static ThreadFactory daemonThreads(String prefix) {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		jobExecutor.shutdownNow();
+		batchExecutor.shutdownNow();
+		batchExecutor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	private static class Progress {
+		private final LocalDateTime startedAt = LocalDateTime.now();
+		private final AtomicInteger synced = new AtomicInteger();
+		private final AtomicInteger failed = new AtomicInteger();
+		private volatile CalendarBackfillStatus.State state = CalendarBackfillStatus.State.RUNNING;
+		private volatile int total;
+		private volatile LocalDateTime finishedAt;
+
+		private CalendarBackfillStatus snapshot() {
+			return CalendarBackfillStatus.builder()
+					.state(state)
+					.total(total)
+					.synced(synced.get())
+					.failed(failed.get())
+					.startedAt(startedAt)
+					.finishedAt(finishedAt)
+					.build();
+		}
+	}
+}
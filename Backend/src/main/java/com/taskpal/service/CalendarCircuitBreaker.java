@@ -0,0 +1,325 @@
+package com.taskpal.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.taskpal.exception.CalendarUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Circuit breaker and bulkhead guarding every Google Calendar call.
+ * <p>
+ * The bulkhead caps concurrent calls so a slow upstream cannot pin every worker thread. The breaker
+ * tracks the outcome of the last {@code window-size} calls and opens when the failure rate crosses the
+ * threshold; while open, calls fail fast with {@link CalendarUnavailableException} and the caller
+ * defers the work. After the open duration a limited number of trial calls decide whether to close again.
+ * <p>
+ * Only server errors and transport failures count against the breaker. A user running into their own
+ * Calendar quota (429, or 403 {@code rateLimitExceeded}/{@code userRateLimitExceeded}) says nothing about
+ * Google's health; that user alone is backed off exponentially, or for the {@code Retry-After} Google sent,
+ * and their calls are rejected with {@link CalendarUnavailableException} until the backoff has passed.
+ * Neither does the token endpoint rejecting a user's refresh token with a 4xx.
+ */
+@Component
+public class CalendarCircuitBreaker {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarCircuitBreaker.class);
+
+	/**
+	 * A single Google API call.
+	 */
+	@FunctionalInterface
+	public interface CalendarCall<T> {
+		T execute() throws IOException;
+	}
+
+	// Reasons Google gives for quota errors that are scoped to one user or calendar
+	private static final Set<String> USER_QUOTA_REASONS = Set.of("rateLimitExceeded", "userRateLimitExceeded");
+
+	public enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	private final Semaphore bulkhead;
+	private final long bulkheadWaitMillis;
+	private final boolean[] outcomes;
+	private final int minimumCalls;
+	private final double failureRateThreshold;
+	private final long openDurationNanos;
+	private final int halfOpenTrials;
+	private final Duration userBackoffInitial;
+	private final Duration userBackoffMax;
+	private final Cache<Long, Throttle> throttledUsers;
+
+	private final Counter successCounter;
+	private final Counter failureCounter;
+	private final Counter rejectedCounter;
+	private final Counter throttledCounter;
+
+	private State state = State.CLOSED;
+	private int recorded;
+	private int position;
+	private int failures;
+	private long openedAt;
+	private int trialsStarted;
+	private int trialsSucceeded;
+
+	/**
+	 * A user backed off after quota errors; strikes grow the next backoff until a call succeeds.
+	 */
+	private record Throttle(int strikes, long until) {
+	}
+
+	public CalendarCircuitBreaker(MeterRegistry meterRegistry,
+			@Value("${google.calendar.bulkhead.max-concurrent-calls:8}") int maxConcurrentCalls,
+			@Value("${google.calendar.bulkhead.max-wait:PT0.5S}") Duration bulkheadWait,
+			@Value("${google.calendar.circuit-breaker.window-size:20}") int windowSize,
+			@Value("${google.calendar.circuit-breaker.minimum-calls:10}") int minimumCalls,
+			@Value("${google.calendar.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+			@Value("${google.calendar.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+			@Value("${google.calendar.circuit-breaker.half-open-trials:3}") int halfOpenTrials,
+			@Value("${google.calendar.user-backoff.initial:PT5S}") Duration userBackoffInitial,
+			@Value("${google.calendar.user-backoff.max:PT5M}") Duration userBackoffMax) {
+		this.bulkhead = new Semaphore(maxConcurrentCalls);
+		this.bulkheadWaitMillis = bulkheadWait.toMillis();
+		this.outcomes = new boolean[windowSize];
+		this.minimumCalls = Math.min(minimumCalls, windowSize);
+		this.failureRateThreshold = failureRateThreshold;
+		this.openDurationNanos = openDuration.toNanos();
+		this.halfOpenTrials = halfOpenTrials;
+		this.userBackoffInitial = userBackoffInitial;
+		this.userBackoffMax = userBackoffMax;
+		this.throttledUsers = Caffeine.newBuilder()
+				.expireAfterWrite(userBackoffMax.multipliedBy(2))
+				.maximumSize(100_000)
+				.build();
+
+		this.successCounter = Counter.builder("taskpal.calendar.calls").tag("outcome", "success")
+				.register(meterRegistry);
+		this.failureCounter = Counter.builder("taskpal.calendar.calls").tag("outcome", "failure")
+				.register(meterRegistry);
+		this.rejectedCounter = Counter.builder("taskpal.calendar.calls").tag("outcome", "rejected")
+				.register(meterRegistry);
+		this.throttledCounter = Counter.builder("taskpal.calendar.calls").tag("outcome", "throttled")
+				.register(meterRegistry);
+		Gauge.builder("taskpal.calendar.circuit.state", this, breaker -> breaker.getState().ordinal())
+				.description("0 = closed, 1 = open, 2 = half-open")
+				.register(meterRegistry);
+		Gauge.builder("taskpal.calendar.bulkhead.available", bulkhead, Semaphore::availablePermits)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Run a Google Calendar call that is not made on behalf of a user through the breaker and bulkhead.
+	 *
+	 * @param call the call
+	 * @return the call result
+	 * @throws IOException if the call itself failed
+	 * @throws CalendarUnavailableException if the call was rejected without being attempted
+	 */
+	public <T> T call(CalendarCall<T> call) throws IOException {
+		return call(null, call);
+	}
+
+	/**
+	 * Run a Google Calendar call on the user's calendar through the breaker and bulkhead.
+	 *
+	 * @param userId the user whose quota the call spends
+	 * @param call the call
+	 * @return the call result
+	 * @throws IOException if the call itself failed
+	 * @throws CalendarUnavailableException if the call was rejected without being attempted, or the user
+	 *         ran out of quota and is backed off
+	 */
+	public <T> T call(Long userId, CalendarCall<T> call) throws IOException {
+		checkThrottle(userId);
+		acquirePermission();
+		boolean acquired;
+		try {
+			acquired = bulkhead.tryAcquire(bulkheadWaitMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			acquired = false;
+		}
+		if (!acquired) {
+			releaseTrial();
+			rejectedCounter.increment();
+			throw new CalendarUnavailableException("Google Calendar bulkhead is full", Duration.ofSeconds(1));
+		}
+
+		try {
+			T result = call.execute();
+			onResult(true);
+			if (userId != null) {
+				throttledUsers.invalidate(userId);
+			}
+			return result;
+		} catch (IOException | RuntimeException e) {
+			if (userId != null && isUserQuotaError(e)) {
+				// Google answered, so the trial neither proves nor disproves its health
+				releaseTrial();
+				throw throttle(userId, (GoogleJsonResponseException) e);
+			}
+			onResult(!countsAsFailure(e));
+			throw e;
+		} finally {
+			bulkhead.release();
+		}
+	}
+
+	public synchronized State getState() {
+		if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+			return State.HALF_OPEN;
+		}
+		return state;
+	}
+
+	private void checkThrottle(Long userId) {
+		Throttle throttle = userId == null ? null : throttledUsers.getIfPresent(userId);
+		long remaining = throttle == null ? 0 : throttle.until() - System.nanoTime();
+		if (remaining > 0) {
+			rejectedCounter.increment();
+			throw new CalendarUnavailableException("Google Calendar quota exceeded for user " + userId,
+					Duration.ofNanos(remaining));
+		}
+	}
+
+	private CalendarUnavailableException throttle(Long userId, GoogleJsonResponseException e) {
+		throttledCounter.increment();
+		Throttle throttle = throttledUsers.asMap().compute(userId, (id, previous) -> {
+			int strikes = previous == null ? 1 : previous.strikes() + 1;
+			Duration delay = retryAfter(e);
+			if (delay == null) {
+				long backoff = userBackoffInitial.toMillis() << Math.min(strikes - 1, 20);
+				delay = Duration.ofMillis(Math.min(backoff, userBackoffMax.toMillis()));
+			}
+			return new Throttle(strikes, System.nanoTime() + delay.toNanos());
+		});
+		Duration delay = Duration.ofNanos(Math.max(0, throttle.until() - System.nanoTime()));
+		logger.info("Google Calendar quota exceeded for user {}, backing off for {}", userId, delay);
+		return new CalendarUnavailableException("Google Calendar quota exceeded for user " + userId, delay);
+	}
+
+	// Retry-After in seconds; the HTTP-date form is not used by Google
+	private Duration retryAfter(GoogleJsonResponseException e) {
+		String retryAfter = e.getHeaders() == null ? null : e.getHeaders().getRetryAfter();
+		if (retryAfter == null) {
+			return null;
+		}
+		try {
+			long seconds = Long.parseLong(retryAfter.trim());
+			return seconds > 0 ? Duration.ofSeconds(Math.min(seconds, userBackoffMax.toSeconds())) : null;
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	private synchronized void acquirePermission() {
+		if (state == State.OPEN) {
+			long remaining = openDurationNanos - (System.nanoTime() - openedAt);
+			if (remaining > 0) {
+				rejectedCounter.increment();
+				throw new CalendarUnavailableException("Google Calendar circuit is open", Duration.ofNanos(remaining));
+			}
+			transitionTo(State.HALF_OPEN);
+		}
+		if (state == State.HALF_OPEN) {
+			if (trialsStarted >= halfOpenTrials) {
+				rejectedCounter.increment();
+				throw new CalendarUnavailableException("Google Calendar circuit is half-open", Duration.ofSeconds(1));
+			}
+			trialsStarted++;
+		}
+	}
+
+	private synchronized void releaseTrial() {
+		if (state == State.HALF_OPEN && trialsStarted > 0) {
+			trialsStarted--;
+		}
+	}
+
+	private synchronized void onResult(boolean success) {
+		(success ? successCounter : failureCounter).increment();
+
+		if (state == State.HALF_OPEN) {
+			if (!success) {
+				transitionTo(State.OPEN);
+			} else if (++trialsSucceeded >= halfOpenTrials) {
+				transitionTo(State.CLOSED);
+			}
+			return;
+		}
+		if (state != State.CLOSED) {
+			return;
+		}
+
+		if (recorded == outcomes.length && !outcomes[position]) {
+			failures--;
+		}
+		outcomes[position] = success;
+		if (!success) {
+			failures++;
+		}
+		position = (position + 1) % outcomes.length;
+		recorded = Math.min(recorded + 1, outcomes.length);
+
+		if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+			transitionTo(State.OPEN);
+		}
+	}
+
+	private void transitionTo(State next) {
+		logger.warn("Google Calendar circuit breaker {} -> {}", state, next);
+		state = next;
+		trialsStarted = 0;
+		trialsSucceeded = 0;
+		if (next == State.OPEN) {
+			openedAt = System.nanoTime();
+		}
+		if (next == State.CLOSED) {
+			recorded = 0;
+			position = 0;
+			failures = 0;
+		}
+	}
+
+	// Client errors such as 404 or 400, and quota errors, say nothing about Google's health
+	private boolean countsAsFailure(Exception e) {
+		// A rejected refresh (e.g. a revoked grant) is about one user's credentials, not Google's health
+		if (e instanceof TokenResponseException response) {
+			return response.getStatusCode() >= 500;
+		}
+		if (e instanceof GoogleJsonResponseException response) {
+			return response.getStatusCode() >= 500;
+		}
+		return e instanceof IOException;
+	}
+
+	private static boolean isUserQuotaError(Exception e) {
+		if (!(e instanceof GoogleJsonResponseException response)) {
+			return false;
+		}
+		if (response.getStatusCode() == 429) {
+			return true;
+		}
+		GoogleJsonError details = response.getDetails();
+		return response.getStatusCode() == 403 && details != null && details.getErrors() != null
+				&& details.getErrors().stream().anyMatch(error -> USER_QUOTA_REASONS.contains(error.getReason()));
+	}
+}
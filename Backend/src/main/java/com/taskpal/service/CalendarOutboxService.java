@@ -0,0 +1,197 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.taskpal.model.CalendarEventField;
+import com.taskpal.model.CalendarOutboxEvent;
+import com.taskpal.model.CalendarSyncOperation;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.CalendarOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for recording Google Calendar side effects in the outbox and managing their lifecycle.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarOutboxService {
+
+	private final CalendarOutboxRepository outboxRepository;
+
+	@Value("${app.calendar-sync.lease:PT2M}")
+	private Duration lease;
+
+	@Value("${app.calendar-sync.max-attempts:10}")
+	private int maxAttempts;
+
+	@Value("${app.calendar-sync.backoff-initial:PT5S}")
+	private Duration backoffInitial;
+
+	@Value("${app.calendar-sync.backoff-max:PT30M}")
+	private Duration backoffMax;
+
+	@Value("${app.calendar-sync.debounce:PT2S}")
+	private Duration debounce;
+
+	@Value("${app.calendar-sync.debounce-max-delay:PT10S}")
+	private Duration debounceMaxDelay;
+
+	/**
+	 * Record a calendar side effect for a task. Must run inside the transaction that changes the task.
+	 *
+	 * @param operation the calendar operation
+	 * @param user the task owner
+	 * @param task the task, already persisted
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueue(CalendarSyncOperation operation, User user, Task task) {
+		outboxRepository.save(CalendarOutboxEvent.builder()
+				.operation(operation)
+				.taskId(task.getId())
+				.userId(user.getId())
+				.googleEventId(task.getGoogleEventId())
+				.nextAttemptAt(LocalDateTime.now())
+				.build());
+	}
+
+	/**
+	 * Record calendar inserts for tasks that could not be synced outside a task transaction, e.g. by the
+	 * backfill. The worker skips tasks that have an event by the time it gets to them.
+	 *
+	 * @param user the task owner
+	 * @param tasks the tasks
+	 */
+	@Transactional
+	public void enqueueCreates(User user, List<Task> tasks) {
+		LocalDateTime now = LocalDateTime.now();
+		outboxRepository.saveAll(tasks.stream()
+				.map(task -> CalendarOutboxEvent.builder()
+						.operation(CalendarSyncOperation.CREATE)
+						.taskId(task.getId())
+						.userId(user.getId())
+						.nextAttemptAt(now)
+						.build())
+				.toList());
+	}
+
+	/**
+	 * Record a calendar update for the given changed fields. Nothing is queued when no
+	 * calendar-visible field changed.
+	 * <p>
+	 * Updates are debounced: while the latest pending row for the task is an update that no worker
+	 * has claimed yet, the new fields are merged into it and its due time moves to
+	 * {@code now + debounce}, but never past {@code createdAt + debounceMaxDelay}. A burst of edits
+	 * therefore ends in one patch carrying the latest task state. The row is locked before the merge;
+	 * if a worker holds or has claimed it, a new row is queued behind it instead.
+	 *
+	 * @param user the task owner
+	 * @param task the task
+	 * @param changedFields the calendar-visible fields that changed
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void enqueueUpdate(User user, Task task, Set<CalendarEventField> changedFields) {
+		if (changedFields.isEmpty()) {
+			return;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		CalendarOutboxEvent pending = outboxRepository.lockMergeableUpdate(task.getId()).orElse(null);
+
+		if (pending != null) {
+			Set<CalendarEventField> merged = EnumSet.copyOf(changedFields);
+			merged.addAll(pending.getChangedFields());
+			pending.setChangedFields(merged);
+			LocalDateTime deadline = pending.getCreatedAt().plus(debounceMaxDelay);
+			LocalDateTime next = now.plus(debounce);
+			pending.setNextAttemptAt(next.isAfter(deadline) ? deadline : next);
+			outboxRepository.save(pending);
+			return;
+		}
+
+		outboxRepository.save(CalendarOutboxEvent.builder()
+				.operation(CalendarSyncOperation.UPDATE)
+				.taskId(task.getId())
+				.userId(user.getId())
+				.googleEventId(task.getGoogleEventId())
+				.changedFields(EnumSet.copyOf(changedFields))
+				.nextAttemptAt(now.plus(debounce))
+				.build());
+	}
+
+	/**
+	 * Make all debounced updates due now so they are sent before this node stops.
+	 *
+	 * @return the number of released updates
+	 */
+	public int releaseDebouncedUpdates() {
+		return outboxRepository.releaseDebouncedUpdates(LocalDateTime.now());
+	}
+
+	/**
+	 * Claim up to {@code limit} due events by leasing them to this node.
+	 *
+	 * @param limit the maximum number of events
+	 * @return the claimed events
+	 */
+	@Transactional
+	public List<CalendarOutboxEvent> claimDueEvents(int limit) {
+		LocalDateTime now = LocalDateTime.now();
+		List<CalendarOutboxEvent> events = outboxRepository.lockDueEvents(now, limit);
+		events.forEach(event -> event.setLockedUntil(now.plus(lease)));
+		return events;
+	}
+
+	/**
+	 * Remove an event once its side effect has been applied.
+	 *
+	 * @param event the processed event
+	 */
+	@Transactional
+	public void complete(CalendarOutboxEvent event) {
+		outboxRepository.deleteById(event.getId());
+	}
+
+	/**
+	 * Put an event back without counting an attempt, e.g. when the quota is exhausted.
+	 *
+	 * @param event the event
+	 * @param delay how long to wait before retrying
+	 */
+	@Transactional
+	public void defer(CalendarOutboxEvent event, Duration delay) {
+		event.setLockedUntil(null);
+		event.setNextAttemptAt(LocalDateTime.now().plus(delay));
+		outboxRepository.save(event);
+	}
+
+	/**
+	 * Record a failed attempt and schedule a retry with exponential backoff and jitter.
+	 * After the maximum number of attempts the event is parked as failed.
+	 *
+	 * @param event the event
+	 * @param error the failure
+	 */
+	@Transactional
+	public void fail(CalendarOutboxEvent event, Exception error) {
+		int attempts = event.getAttempts() + 1;
+		event.setAttempts(attempts);
+		event.setLockedUntil(null);
+		event.setLastError(OutboxRetry.describe(error));
+		if (attempts >= maxAttempts) {
+			event.setFailed(true);
+		} else {
+			event.setNextAttemptAt(LocalDateTime.now().plus(OutboxRetry.backoff(attempts, backoffInitial, backoffMax)));
+		}
+		outboxRepository.save(event);
+	}
+}
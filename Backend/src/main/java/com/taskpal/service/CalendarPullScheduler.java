@@ -0,0 +1,99 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskpal.exception.CalendarUnavailableException;
+import com.taskpal.model.User;
+import com.taskpal.repository.UserRepository;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Schedules incremental calendar pulls per user.
+ * Each user's next pull is set to the interval plus a random jitter, so pulls spread out across users
+ * instead of all firing together. A pull is claimed by moving the next pull time with a conditional
+ * UPDATE, so each pull runs on a single node.
+ */
+@Component
+public class CalendarPullScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarPullScheduler.class);
+
+	private final UserRepository userRepository;
+	private final CalendarPullService calendarPullService;
+	private final ExecutorService executor;
+	private final Duration interval;
+	private final Duration jitter;
+	private final int batchSize;
+
+	public CalendarPullScheduler(UserRepository userRepository, CalendarPullService calendarPullService,
+			@Value("${app.calendar-pull.interval:PT5M}") Duration interval,
+			@Value("${app.calendar-pull.jitter:PT1M}") Duration jitter,
+			@Value("${app.calendar-pull.batch-size:100}") int batchSize,
+			@Value("${app.calendar-pull.threads:2}") int threads) {
+		this.userRepository = userRepository;
+		this.calendarPullService = calendarPullService;
+		this.interval = interval;
+		this.jitter = jitter;
+		this.batchSize = batchSize;
+		AtomicInteger counter = new AtomicInteger();
+		// Tasks run in the span of the scheduled poll that submitted them
+		this.executor = ContextExecutorService.wrap(Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "calendar-pull-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}), ContextSnapshotFactory.builder().build());
+	}
+
+	@Scheduled(fixedDelayString = "${app.calendar-pull.poll-interval-ms:10000}")
+	public void pullDueUsers() {
+		LocalDateTime now = LocalDateTime.now();
+		List<User> users = userRepository.findDueForCalendarPull(now, Limit.of(batchSize));
+		CompletableFuture<?>[] pulls = users.stream()
+				.filter(user -> userRepository.claimCalendarPull(user.getId(), now, nextPullAt(now)) == 1)
+				.map(user -> CompletableFuture.runAsync(() -> pull(user), executor))
+				.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(pulls).join();
+	}
+
+	private void pull(User user) {
+		try {
+			int changed = calendarPullService.pull(user);
+			if (changed > 0) {
+				logger.info("Pulled {} calendar changes for user {}", changed, user.getId());
+			}
+		} catch (CalendarUnavailableException e) {
+			logger.debug("Calendar pull for user {} skipped: {}", user.getId(), e.getMessage());
+		} catch (Exception e) {
+			logger.warn("Calendar pull for user {} failed: {}", user.getId(), e.getMessage());
+		}
+	}
+
+	private LocalDateTime nextPullAt(LocalDateTime now) {
+		long jitterMillis = jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+		return now.plus(interval).plus(Duration.ofMillis(jitterMillis));
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		executor.shutdown();
+		executor.awaitTermination(10, TimeUnit.SECONDS);
+	}
+}
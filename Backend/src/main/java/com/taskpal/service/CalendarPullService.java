@@ -0,0 +1,184 @@
+package com.taskpal.service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import com.taskpal.dto.TaskEventDto;
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.model.Task;
+import com.taskpal.model.TaskEventType;
+import com.taskpal.model.User;
+import com.taskpal.repository.CalendarOutboxRepository;
+import com.taskpal.repository.TaskRepository;
+import com.taskpal.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Incremental pull of Google Calendar changes back into tasks.
+ * <p>
+ * Each user keeps a Calendar {@code syncToken}; a pull only fetches events changed since the last one.
+ * Changed events are matched to tasks through {@code googleEventId}. Edits to the title, description or
+ * date are copied onto the task, cut to the length of the task's columns, and cancelled events are
+ * unlinked from their task. Pulled changes are
+ * written directly and never re-enter the outbox, so they do not echo back to Google. Each changed task is
+ * published as an {@code UPDATED} {@link TaskChangedEvent}, so open tabs see remote edits and unlinks without
+ * re-fetching.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarPullService {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarPullService.class);
+	private static final int PAGE_SIZE = 250;
+	// Length of the task title and description columns; Google allows far longer summaries and descriptions
+	private static final int MAX_TEXT_LENGTH = 255;
+
+	private final GoogleCalendarClientCache calendarClientCache;
+	private final CalendarCircuitBreaker circuitBreaker;
+	private final TaskRepository taskRepository;
+	private final UserRepository userRepository;
+	private final CalendarOutboxRepository outboxRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Pull calendar changes for one user.
+	 *
+	 * @param user the Google-linked user
+	 * @return the number of tasks changed
+	 * @throws IOException if the Calendar API call fails
+	 */
+	public int pull(User user) throws IOException {
+		try {
+			return pull(user, user.getGoogleCalendarSyncToken());
+		} catch (GoogleJsonResponseException e) {
+			if (e.getStatusCode() != 410) {
+				throw e;
+			}
+			// Sync token expired, start over with a full listing
+			logger.info("Calendar sync token expired for user {}, running full sync", user.getId());
+			userRepository.updateGoogleSyncToken(user.getId(), null);
+			return pull(user, null);
+		}
+	}
+
+	private int pull(User user, String syncToken) throws IOException {
+		Calendar service = calendarClientCache.get(user);
+		int changed = 0;
+		String pageToken = null;
+		Events events;
+		do {
+			Calendar.Events.List request = service.events().list("primary")
+					.setMaxResults(PAGE_SIZE)
+					.setPageToken(pageToken);
+			if (syncToken != null) {
+				request.setSyncToken(syncToken);
+			}
+			events = circuitBreaker.call(user.getId(), request::execute);
+			changed += apply(user, events.getItems());
+			pageToken = events.getNextPageToken();
+		} while (pageToken != null);
+
+		if (events.getNextSyncToken() != null) {
+			userRepository.updateGoogleSyncToken(user.getId(), events.getNextSyncToken());
+		}
+		return changed;
+	}
+
+	private int apply(User user, List<Event> items) {
+		if (items == null || items.isEmpty()) {
+			return 0;
+		}
+		Map<String, Event> byId = items.stream()
+				.filter(event -> event.getId() != null)
+				.collect(Collectors.toMap(Event::getId, Function.identity(), (first, second) -> second));
+
+		Integer changed = transactionTemplate.execute(status -> {
+			List<Task> tasks = taskRepository.findByUserIdAndGoogleEventIdIn(user.getId(), byId.keySet());
+			if (tasks.isEmpty()) {
+				return 0;
+			}
+			// Local edits still waiting in the outbox win over the remote state
+			Set<Long> pending = outboxRepository.findPendingTaskIds(tasks.stream().map(Task::getId).toList());
+			int count = 0;
+			for (Task task : tasks) {
+				if (!pending.contains(task.getId()) && applyEvent(task, byId.get(task.getGoogleEventId()))) {
+					// Flushed so the event carries the bumped version; it reaches the streams once the transaction commits
+					TaskResponseDto saved = TaskService.toResponse(taskRepository.saveAndFlush(task));
+					eventPublisher.publishEvent(new TaskChangedEvent(user.getId(),
+							new TaskEventDto(TaskEventType.UPDATED, saved.getId(), saved)));
+					count++;
+				}
+			}
+			return count;
+		});
+		return changed == null ? 0 : changed;
+	}
+
+	private boolean applyEvent(Task task, Event event) {
+		if ("cancelled".equals(event.getStatus())) {
+			task.setGoogleEventId(null);
+			return true;
+		}
+
+		boolean changed = false;
+		String title = clamp(event.getSummary());
+		if (title != null && !title.equals(task.getTitle())) {
+			task.setTitle(title);
+			changed = true;
+		}
+		String description = event.getDescription() == null ? "" : clamp(event.getDescription());
+		if (!description.equals(task.getDescription())) {
+			task.setDescription(description);
+			changed = true;
+		}
+		LocalDate dueDate = toLocalDate(event.getStart());
+		if (dueDate != null && !Objects.equals(dueDate, task.getDueDate())) {
+			task.setDueDate(dueDate);
+			changed = true;
+		}
+		return changed;
+	}
+
+	// Cut to fit the column, without splitting a surrogate pair
+	private static String clamp(String text) {
+		if (text == null || text.length() <= MAX_TEXT_LENGTH) {
+			return text;
+		}
+		int end = Character.isHighSurrogate(text.charAt(MAX_TEXT_LENGTH - 1)) ? MAX_TEXT_LENGTH - 1 : MAX_TEXT_LENGTH;
+		return text.substring(0, end);
+	}
+
+	private LocalDate toLocalDate(EventDateTime start) {
+		if (start == null) {
+			return null;
+		}
+		if (start.getDate() != null) {
+			return LocalDate.parse(start.getDate().toStringRfc3339().substring(0, 10));
+		}
+		if (start.getDateTime() != null) {
+			return Instant.ofEpochMilli(start.getDateTime().getValue()).atZone(ZoneId.systemDefault()).toLocalDate();
+		}
+		return null;
+	}
+}
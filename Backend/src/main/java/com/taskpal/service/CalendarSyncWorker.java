@@ -0,0 +1,153 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskpal.exception.CalendarUnavailableException;
+import com.taskpal.model.CalendarOutboxEvent;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.TaskRepository;
+import com.taskpal.repository.UserRepository;
+import com.taskpal.security.TokenBucket;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshotFactory;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Background worker draining the calendar outbox.
+ * Claimed events are processed on a bounded pool; the claim query guarantees at most one event
+ * per task per batch, so per-task ordering holds across the pool and across nodes.
+ */
+@Component
+public class CalendarSyncWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarSyncWorker.class);
+
+	private final CalendarOutboxService outboxService;
+	private final GoogleCalendarService googleCalendarService;
+	private final TaskRepository taskRepository;
+	private final UserRepository userRepository;
+	private final ExecutorService executor;
+	private final TokenBucket quota;
+	private final int batchSize;
+
+	@Value("${app.calendar-sync.flush-timeout-seconds:10}")
+	private long flushTimeoutSeconds;
+
+	public CalendarSyncWorker(CalendarOutboxService outboxService, GoogleCalendarService googleCalendarService,
+			TaskRepository taskRepository, UserRepository userRepository,
+			@Value("${app.calendar-sync.threads:4}") int threads,
+			@Value("${app.calendar-sync.batch-size:50}") int batchSize,
+			@Value("${app.calendar-sync.requests-per-minute:600}") int requestsPerMinute) {
+		this.outboxService = outboxService;
+		this.googleCalendarService = googleCalendarService;
+		this.taskRepository = taskRepository;
+		this.userRepository = userRepository;
+		this.batchSize = batchSize;
+		this.quota = new TokenBucket(Math.max(1, requestsPerMinute / 60), requestsPerMinute);
+		AtomicInteger counter = new AtomicInteger();
+		// Tasks run in the span of the scheduled poll that submitted them
+		this.executor = ContextExecutorService.wrap(Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "calendar-sync-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}), ContextSnapshotFactory.builder().build());
+	}
+
+	@Scheduled(fixedDelayString = "${app.calendar-sync.poll-interval-ms:1000}")
+	public void poll() {
+		drain();
+	}
+
+	private int drain() {
+		List<CalendarOutboxEvent> events = outboxService.claimDueEvents(batchSize);
+		if (events.isEmpty()) {
+			return 0;
+		}
+		CompletableFuture<?>[] futures = events.stream()
+				.map(event -> CompletableFuture.runAsync(() -> process(event), executor))
+				.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(futures).join();
+		return events.size();
+	}
+
+	private void process(CalendarOutboxEvent event) {
+		long waitNanos = quota.tryConsume(System.nanoTime());
+		if (waitNanos > 0) {
+			outboxService.defer(event, Duration.ofNanos(waitNanos));
+			return;
+		}
+
+		try {
+			User user = userRepository.findById(event.getUserId()).orElse(null);
+			if (user == null || !user.isGoogle()) {
+				outboxService.complete(event);
+				return;
+			}
+			switch (event.getOperation()) {
+				case CREATE -> create(user, event);
+				case UPDATE -> update(user, event);
+				case DELETE -> googleCalendarService.deleteCalendarEvent(user, event.getGoogleEventId());
+			}
+			outboxService.complete(event);
+		} catch (CalendarUnavailableException e) {
+			// Google is unhealthy or saturated, retry later without spending an attempt
+			outboxService.defer(event, e.getRetryAfter());
+		} catch (Exception e) {
+			logger.warn("Calendar sync {} for task {} failed (attempt {}): {}", event.getOperation(),
+					event.getTaskId(), event.getAttempts() + 1, e.getMessage());
+			outboxService.fail(event, e);
+		}
+	}
+
+	private void create(User user, CalendarOutboxEvent event) throws Exception {
+		Task task = taskRepository.findById(event.getTaskId()).orElse(null);
+		if (task == null || task.getGoogleEventId() != null) {
+			return;
+		}
+		String eventId = googleCalendarService.createCalendarEvent(user, task);
+		if (eventId != null && taskRepository.updateGoogleEventId(task.getId(), eventId) == 0) {
+			// Task was deleted or backfilled while the event was being created
+			googleCalendarService.deleteCalendarEvent(user, eventId);
+		}
+	}
+
+	private void update(User user, CalendarOutboxEvent event) throws Exception {
+		Task task = taskRepository.findById(event.getTaskId()).orElse(null);
+		if (task != null) {
+			googleCalendarService.patchCalendarEvent(user, task, event.getChangedFields());
+		}
+	}
+
+	/**
+	 * Flush debounced updates before stopping, so coalesced edits are not held back until the next start.
+	 */
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		try {
+			if (outboxService.releaseDebouncedUpdates() > 0) {
+				long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(flushTimeoutSeconds);
+				while (drain() > 0 && System.nanoTime() < deadline) {
+					logger.info("Flushed pending calendar updates before shutdown");
+				}
+			}
+		} catch (Exception e) {
+			logger.warn("Failed to flush calendar updates on shutdown: {}", e.getMessage());
+		}
+		executor.shutdown();
+		executor.awaitTermination(30, TimeUnit.SECONDS);
+	}
+}
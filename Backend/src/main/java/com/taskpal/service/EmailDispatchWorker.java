@@ -0,0 +1,175 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskpal.model.EmailOutboxMessage;
+import com.taskpal.security.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Background worker draining the email outbox.
+ * <p>
+ * Each poll claims a batch and sends it over one authenticated SMTP {@link Transport}, so the TCP,
+ * STARTTLS and AUTH handshakes are paid once per batch instead of once per message. A dropped
+ * connection is reopened for the rest of the batch. Sends are paced by a token bucket sized to the
+ * mail provider's limits; when it runs dry the rest of the batch is deferred without spending an attempt.
+ */
+@Component
+public class EmailDispatchWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailDispatchWorker.class);
+
+	private final EmailOutboxService outboxService;
+	private final JavaMailSenderImpl mailSender;
+	private final TokenBucket rateLimit;
+	private final int batchSize;
+
+	private final AtomicLong queueDepth = new AtomicLong();
+	private final AtomicLong failedDepth = new AtomicLong();
+	private final Counter sentCounter;
+	private final Counter failureCounter;
+	private final ObservationRegistry observationRegistry;
+
+	@Value("${spring.mail.username}")
+	private String fromEmail;
+
+	public EmailDispatchWorker(EmailOutboxService outboxService, JavaMailSenderImpl mailSender,
+			MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+			@Value("${app.email.outbox.batch-size:50}") int batchSize,
+			@Value("${app.email.rate-limit.burst:10}") int burst,
+			@Value("${app.email.rate-limit.messages-per-minute:60}") int messagesPerMinute) {
+		this.outboxService = outboxService;
+		this.mailSender = mailSender;
+		this.batchSize = batchSize;
+		this.rateLimit = new TokenBucket(burst, messagesPerMinute);
+
+		Gauge.builder("taskpal.email.queue.depth", queueDepth, AtomicLong::get)
+				.description("Emails waiting to be sent")
+				.register(meterRegistry);
+		Gauge.builder("taskpal.email.queue.failed", failedDepth, AtomicLong::get)
+				.description("Emails parked after exhausting their attempts")
+				.register(meterRegistry);
+		this.sentCounter = Counter.builder("taskpal.email.sends").tag("outcome", "success").register(meterRegistry);
+		this.failureCounter = Counter.builder("taskpal.email.sends").tag("outcome", "failure")
+				.register(meterRegistry);
+		this.observationRegistry = observationRegistry;
+	}
+
+	@Scheduled(fixedDelayString = "${app.email.outbox.poll-interval-ms:2000}")
+	public void poll() {
+		try {
+			drain();
+		} finally {
+			queueDepth.set(outboxService.countPending());
+			failedDepth.set(outboxService.countFailed());
+		}
+	}
+
+	private void drain() {
+		List<EmailOutboxMessage> messages = outboxService.claimDueMessages(batchSize);
+		if (messages.isEmpty()) {
+			return;
+		}
+
+		Transport transport = null;
+		try {
+			for (int i = 0; i < messages.size(); i++) {
+				EmailOutboxMessage message = messages.get(i);
+				long waitNanos = rateLimit.tryConsume(System.nanoTime());
+				if (waitNanos > 0) {
+					Duration delay = Duration.ofNanos(waitNanos);
+					messages.subList(i, messages.size()).forEach(rest -> outboxService.defer(rest, delay));
+					return;
+				}
+
+				if (transport == null || !transport.isConnected()) {
+					try {
+						transport = connect();
+					} catch (MessagingException e) {
+						logger.warn("Could not connect to SMTP server {}: {}", mailSender.getHost(), e.getMessage());
+						messages.subList(i, messages.size()).forEach(rest -> outboxService.fail(rest, e));
+						failureCounter.increment(messages.size() - i);
+						return;
+					}
+				}
+
+				try {
+					MimeMessage mimeMessage = toMimeMessage(message);
+					send(transport, mimeMessage);
+					outboxService.complete(message);
+					sentCounter.increment();
+				} catch (MessagingException e) {
+					logger.warn("Failed to send email {} to {} (attempt {}): {}", message.getId(),
+							message.getRecipient(), message.getAttempts() + 1, e.getMessage());
+					outboxService.fail(message, e);
+					failureCounter.increment();
+				}
+			}
+		} finally {
+			close(transport);
+		}
+	}
+
+	// Timed and traced as taskpal.email.send
+	private void send(Transport transport, MimeMessage mimeMessage) throws MessagingException {
+		Observation observation = Observation.start("taskpal.email.send", observationRegistry);
+		try (Observation.Scope scope = observation.openScope()) {
+			transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+		} catch (MessagingException | RuntimeException e) {
+			observation.error(e);
+			throw e;
+		} finally {
+			observation.stop();
+		}
+	}
+
+	private Transport connect() throws MessagingException {
+		String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+		Transport transport = mailSender.getSession().getTransport(protocol);
+		transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+				mailSender.getPassword());
+		return transport;
+	}
+
+	private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+		MimeMessage mimeMessage = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+		helper.setFrom(fromEmail);
+		helper.setTo(message.getRecipient());
+		helper.setSubject(message.getSubject());
+		helper.setText(message.getBody(), true);
+		helper.setSentDate(new Date());
+		mimeMessage.saveChanges();
+		return mimeMessage;
+	}
+
+	private void close(Transport transport) {
+		if (transport == null) {
+			return;
+		}
+		try {
+			transport.close();
+		} catch (MessagingException e) {
+			logger.debug("Failed to close SMTP connection: {}", e.getMessage());
+		}
+	}
+}
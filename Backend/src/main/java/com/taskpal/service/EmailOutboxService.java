@@ -0,0 +1,148 @@
+package com.taskpal.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.taskpal.model.EmailOutboxMessage;
+import com.taskpal.repository.EmailOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for queueing outbound email and managing the lifecycle of queued messages.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+	private final EmailOutboxRepository outboxRepository;
+	private final JdbcTemplate jdbcTemplate;
+
+	@Value("${app.email.outbox.lease:PT5M}")
+	private Duration lease;
+
+	@Value("${app.email.outbox.max-attempts:8}")
+	private int maxAttempts;
+
+	@Value("${app.email.outbox.backoff-initial:PT30S}")
+	private Duration backoffInitial;
+
+	@Value("${app.email.outbox.backoff-max:PT1H}")
+	private Duration backoffMax;
+
+	/**
+	 * Queue an email. Joins the caller's transaction, so the message is only sent if the triggering change commits.
+	 *
+	 * @param recipient the recipient's email address
+	 * @param subject the subject line
+	 * @param body the HTML body
+	 */
+	@Transactional
+	public void enqueue(String recipient, String subject, String body) {
+		outboxRepository.save(EmailOutboxMessage.builder()
+				.recipient(recipient)
+				.subject(subject)
+				.body(body)
+				.nextAttemptAt(LocalDateTime.now())
+				.build());
+	}
+
+	/**
+	 * Queue many emails with one batched insert, for bulk senders such as the digest job.
+	 * Joins the caller's transaction.
+	 *
+	 * @param messages the messages; only recipient, subject and body are used
+	 */
+	@Transactional
+	public void enqueueAll(List<EmailOutboxMessage> messages) {
+		if (messages.isEmpty()) {
+			return;
+		}
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO email_outbox (recipient, subject, body, attempts, next_attempt_at, failed, created_at)
+				VALUES (?, ?, ?, 0, ?, false, ?)
+				""", messages.stream()
+				.map(message -> new Object[] { message.getRecipient(), message.getSubject(), message.getBody(), now, now })
+				.toList());
+	}
+
+	/**
+	 * Claim up to {@code limit} due messages by leasing them to this node.
+	 *
+	 * @param limit the maximum number of messages
+	 * @return the claimed messages
+	 */
+	@Transactional
+	public List<EmailOutboxMessage> claimDueMessages(int limit) {
+		LocalDateTime now = LocalDateTime.now();
+		List<EmailOutboxMessage> messages = outboxRepository.lockDueMessages(now, limit);
+		messages.forEach(message -> message.setLockedUntil(now.plus(lease)));
+		return messages;
+	}
+
+	/**
+	 * Remove a message once it has been handed to the SMTP server.
+	 *
+	 * @param message the sent message
+	 */
+	@Transactional
+	public void complete(EmailOutboxMessage message) {
+		outboxRepository.deleteById(message.getId());
+	}
+
+	/**
+	 * Put a message back without counting an attempt, e.g. when the send rate limit is exhausted.
+	 *
+	 * @param message the message
+	 * @param delay how long to wait before retrying
+	 */
+	@Transactional
+	public void defer(EmailOutboxMessage message, Duration delay) {
+		message.setLockedUntil(null);
+		message.setNextAttemptAt(LocalDateTime.now().plus(delay));
+		outboxRepository.save(message);
+	}
+
+	/**
+	 * Record a failed attempt and schedule a retry with exponential backoff and jitter.
+	 * After the maximum number of attempts the message is parked as failed.
+	 *
+	 * @param message the message
+	 * @param error the failure
+	 */
+	@Transactional
+	public void fail(EmailOutboxMessage message, Exception error) {
+		int attempts = message.getAttempts() + 1;
+		message.setAttempts(attempts);
+		message.setLockedUntil(null);
+		message.setLastError(OutboxRetry.describe(error));
+		if (attempts >= maxAttempts) {
+			message.setFailed(true);
+		} else {
+			message.setNextAttemptAt(LocalDateTime.now().plus(OutboxRetry.backoff(attempts, backoffInitial, backoffMax)));
+		}
+		outboxRepository.save(message);
+	}
+
+	/**
+	 * @return the number of messages waiting to be sent
+	 */
+	public long countPending() {
+		return outboxRepository.countByFailedFalse();
+	}
+
+	/**
+	 * @return the number of messages parked after exhausting their attempts
+	 */
+	public long countFailed() {
+		return outboxRepository.countByFailedTrue();
+	}
+}
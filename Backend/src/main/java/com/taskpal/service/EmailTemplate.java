@@ -0,0 +1,125 @@
+package com.taskpal.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email template compiled into alternating literal chunks and placeholders.
+ * <p>
+ * {@code {{name}}} inserts the HTML-escaped value of {@code name}; {@code {{{name}}}} inserts it as is,
+ * for fragments that were rendered by another template. Compiling happens once, so rendering is a
+ * sequence of appends with no parsing or regex work.
+ */
+public final class EmailTemplate {
+
+	private final String name;
+	private final String[] literals;
+	private final String[] placeholders;
+	private final boolean[] raw;
+	private final int estimatedLength;
+
+	private EmailTemplate(String name, String[] literals, String[] placeholders, boolean[] raw) {
+		this.name = name;
+		this.literals = literals;
+		this.placeholders = placeholders;
+		this.raw = raw;
+		int length = 0;
+		for (String literal : literals) {
+			length += literal.length();
+		}
+		this.estimatedLength = length + placeholders.length * 16;
+	}
+
+	/**
+	 * Compile a template source.
+	 *
+	 * @param name the template name, used in error messages
+	 * @param source the template text
+	 * @return the compiled template
+	 * @throws IllegalArgumentException if a placeholder is not closed or empty
+	 */
+	public static EmailTemplate compile(String name, String source) {
+		List<String> literals = new ArrayList<>();
+		List<String> placeholders = new ArrayList<>();
+		List<Boolean> raw = new ArrayList<>();
+
+		int position = 0;
+		while (true) {
+			int open = source.indexOf("{{", position);
+			if (open < 0) {
+				literals.add(source.substring(position));
+				break;
+			}
+			boolean triple = source.startsWith("{{{", open);
+			String closing = triple ? "}}}" : "}}";
+			int start = open + (triple ? 3 : 2);
+			int close = source.indexOf(closing, start);
+			if (close < 0) {
+				throw new IllegalArgumentException("Unclosed placeholder in email template " + name + " at " + open);
+			}
+			String placeholder = source.substring(start, close).trim();
+			if (placeholder.isEmpty()) {
+				throw new IllegalArgumentException("Empty placeholder in email template " + name + " at " + open);
+			}
+			literals.add(source.substring(position, open));
+			placeholders.add(placeholder);
+			raw.add(triple);
+			position = close + closing.length();
+		}
+
+		boolean[] rawFlags = new boolean[raw.size()];
+		for (int i = 0; i < rawFlags.length; i++) {
+			rawFlags[i] = raw.get(i);
+		}
+		return new EmailTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new), rawFlags);
+	}
+
+	/**
+	 * Render the template into {@code out}.
+	 *
+	 * @param model the placeholder values
+	 * @param out the buffer to append to
+	 * @throws IllegalArgumentException if the model has no value for a placeholder
+	 */
+	public void render(Map<String, ?> model, StringBuilder out) {
+		out.ensureCapacity(out.length() + estimatedLength);
+		for (int i = 0; i < placeholders.length; i++) {
+			out.append(literals[i]);
+			Object value = model.get(placeholders[i]);
+			if (value == null && !model.containsKey(placeholders[i])) {
+				throw new IllegalArgumentException("Missing value for " + placeholders[i] + " in email template " + name);
+			}
+			String text = value == null ? "" : value.toString();
+			if (raw[i]) {
+				out.append(text);
+			} else {
+				escapeHtml(text, out);
+			}
+		}
+		out.append(literals[placeholders.length]);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	static void escapeHtml(String text, StringBuilder out) {
+		int last = 0;
+		for (int i = 0; i < text.length(); i++) {
+			String replacement = switch (text.charAt(i)) {
+				case '&' -> "&amp;";
+				case '<' -> "&lt;";
+				case '>' -> "&gt;";
+				case '"' -> "&quot;";
+				case '\'' -> "&#39;";
+				default -> null;
+			};
+			if (replacement != null) {
+				out.append(text, last, i).append(replacement);
+				last = i + 1;
+			}
+		}
+		out.append(text, last, text.length());
+	}
+}
@@ -0,0 +1,84 @@
+package com.taskpal.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registry of compiled email templates.
+ * <p>
+ * Every {@code templates/email/*.html} file on the classpath is compiled once at startup, so a broken
+ * template fails the boot instead of a send. Rendering reuses a per-thread buffer, which keeps bulk
+ * runs such as digests from allocating a fresh builder for every message.
+ */
+@Component
+public class EmailTemplates {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailTemplates.class);
+	private static final String LOCATION = "classpath*:templates/email/*.html";
+	private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+	private final Map<String, EmailTemplate> templates;
+	private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+
+	public EmailTemplates() throws IOException {
+		this(new PathMatchingResourcePatternResolver());
+	}
+
+	EmailTemplates(ResourcePatternResolver resolver) throws IOException {
+		Map<String, EmailTemplate> compiled = new HashMap<>();
+		for (Resource resource : resolver.getResources(LOCATION)) {
+			String filename = resource.getFilename();
+			String name = filename.substring(0, filename.length() - ".html".length());
+			String source = resource.getContentAsString(StandardCharsets.UTF_8);
+			compiled.put(name, EmailTemplate.compile(name, source));
+		}
+		this.templates = Map.copyOf(compiled);
+		logger.info("Compiled {} email templates", templates.size());
+	}
+
+	/**
+	 * Render a template to a string.
+	 *
+	 * @param name the template name, the file name without {@code .html}
+	 * @param model the placeholder values
+	 * @return the rendered HTML
+	 * @throws IllegalArgumentException if the template does not exist or a value is missing
+	 */
+	public String render(String name, Map<String, ?> model) {
+		StringBuilder buffer = buffers.get();
+		buffer.setLength(0);
+		try {
+			get(name).render(model, buffer);
+			return buffer.toString();
+		} finally {
+			// Don't pin an unusually large buffer to the thread
+			if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+				buffers.remove();
+			}
+		}
+	}
+
+	/**
+	 * Get a compiled template, e.g. to render repeated fragments into one buffer.
+	 *
+	 * @param name the template name
+	 * @return the template
+	 * @throws IllegalArgumentException if the template does not exist
+	 */
+	public EmailTemplate get(String name) {
+		EmailTemplate template = templates.get(name);
+		if (template == null) {
+			throw new IllegalArgumentException("Unknown email template: " + name);
+		}
+		return template;
+	}
+}
@@ -0,0 +1,180 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.client.auth.oauth2.BearerToken;
+import com.google.api.client.auth.oauth2.ClientParametersAuthentication;
+import com.google.api.client.auth.oauth2.Credential;
+import com.google.api.client.auth.oauth2.CredentialRefreshListener;
+import com.google.api.client.auth.oauth2.TokenErrorResponse;
+import com.google.api.client.auth.oauth2.TokenResponse;
+import com.google.api.client.googleapis.auth.oauth2.GoogleOAuthConstants;
+import com.google.api.client.http.GenericUrl;
+import com.google.api.client.http.HttpRequestInitializer;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.calendar.Calendar;
+import com.taskpal.model.User;
+import com.taskpal.repository.UserRepository;
+
+/**
+ * Bounded, expiring cache of per-user Google Calendar clients.
+ * All clients share the pooled {@link HttpTransport}, so a warm client costs one HTTPS request per call.
+ */
+@Component
+public class GoogleCalendarClientCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(GoogleCalendarClientCache.class);
+	private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+	// Token endpoint error for a revoked or expired refresh token
+	private static final String INVALID_GRANT = "invalid_grant";
+
+	private final HttpTransport httpTransport;
+	private final String clientId;
+	private final String clientSecret;
+	private final Cache<Long, CachedClient> clients;
+	private final UserRepository userRepository;
+	private final int connectTimeoutMillis;
+	private final int readTimeoutMillis;
+	private final String calendarRootUrl;
+	private final GenericUrl tokenServerUrl;
+
+	public GoogleCalendarClientCache(HttpTransport httpTransport, UserRepository userRepository,
+			@Value("${google.client.id}") String clientId,
+			@Value("${google.client.secret}") String clientSecret,
+			@Value("${google.calendar.client-cache.max-size:10000}") long maxSize,
+			@Value("${google.calendar.client-cache.expire-after-access:30m}") Duration expireAfterAccess,
+			@Value("${google.http.connect-timeout-ms:3000}") int connectTimeoutMillis,
+			@Value("${google.http.read-timeout-ms:5000}") int readTimeoutMillis,
+			@Value("${google.calendar.root-url:" + Calendar.DEFAULT_ROOT_URL + "}") String calendarRootUrl,
+			@Value("${google.oauth.token-url:" + GoogleOAuthConstants.TOKEN_SERVER_URL + "}") String tokenServerUrl) {
+		this.httpTransport = httpTransport;
+		this.userRepository = userRepository;
+		this.clientId = clientId;
+		this.clientSecret = clientSecret;
+		this.connectTimeoutMillis = connectTimeoutMillis;
+		this.readTimeoutMillis = readTimeoutMillis;
+		this.calendarRootUrl = calendarRootUrl;
+		this.tokenServerUrl = new GenericUrl(tokenServerUrl);
+		this.clients = Caffeine.newBuilder().maximumSize(maxSize).expireAfterAccess(expireAfterAccess).build();
+	}
+
+	/**
+	 * Get the Calendar client for a user, building it on first use or when the user's refresh token changed.
+	 *
+	 * @param user the Google-linked user
+	 * @return the Calendar client
+	 */
+	public Calendar get(User user) {
+		return cachedClient(user).calendar();
+	}
+
+	/**
+	 * Get the credential backing the user's cached Calendar client.
+	 * Refreshing it updates the cached client and persists the new token.
+	 *
+	 * @param user the Google-linked user
+	 * @return the credential
+	 */
+	public Credential getCredential(User user) {
+		return cachedClient(user).credential();
+	}
+
+	/**
+	 * Drop the cached client for a user, e.g. after they reconnect their calendar.
+	 *
+	 * @param userId the user ID
+	 */
+	public void invalidate(Long userId) {
+		clients.invalidate(userId);
+	}
+
+	private CachedClient cachedClient(User user) {
+		CachedClient cached = clients.getIfPresent(user.getId());
+		if (cached == null || !Objects.equals(cached.refreshToken(), user.getGoogleCalendarRefreshToken())) {
+			cached = build(user);
+			clients.put(user.getId(), cached);
+		}
+		return cached;
+	}
+
+	private CachedClient build(User user) {
+		HttpRequestInitializer timeouts = request -> {
+			request.setConnectTimeout(connectTimeoutMillis);
+			request.setReadTimeout(readTimeoutMillis);
+		};
+		Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
+				.setTransport(httpTransport)
+				.setJsonFactory(JSON_FACTORY)
+				.setTokenServerUrl(tokenServerUrl)
+				.setClientAuthentication(new ClientParametersAuthentication(clientId, clientSecret))
+				.setRequestInitializer(timeouts)
+				.addRefreshListener(new PersistingRefreshListener(user.getId()))
+				.build()
+				.setAccessToken(user.getGoogleCalendarAccessToken())
+				.setRefreshToken(user.getGoogleCalendarRefreshToken());
+		if (user.getGoogleCalendarTokenExpiry() != null) {
+			credential.setExpirationTimeMilliseconds(
+					user.getGoogleCalendarTokenExpiry().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+		}
+
+		HttpRequestInitializer initializer = request -> {
+			credential.initialize(request);
+			timeouts.initialize(request);
+		};
+		Calendar calendar = new Calendar.Builder(httpTransport, JSON_FACTORY, initializer)
+				.setRootUrl(calendarRootUrl)
+				.setApplicationName("TaskPal")
+				.build();
+		return new CachedClient(user.getGoogleCalendarRefreshToken(), credential, calendar);
+	}
+
+	/**
+	 * Writes every refreshed access token back to the user row, so later clients start with a valid token.
+	 * A grant Google no longer accepts unlinks the user, so no job keeps retrying it.
+	 */
+	private class PersistingRefreshListener implements CredentialRefreshListener {
+
+		private final Long userId;
+
+		private PersistingRefreshListener(Long userId) {
+			this.userId = userId;
+		}
+
+		@Override
+		public void onTokenResponse(Credential credential, TokenResponse tokenResponse) {
+			Long expiresAt = credential.getExpirationTimeMilliseconds();
+			LocalDateTime expiry = expiresAt == null ? null
+					: LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAt), ZoneId.systemDefault());
+			userRepository.updateGoogleTokens(userId, credential.getAccessToken(), tokenResponse.getRefreshToken(),
+					expiry);
+		}
+
+		@Override
+		public void onTokenErrorResponse(Credential credential, TokenErrorResponse tokenErrorResponse) {
+			if (tokenErrorResponse != null && INVALID_GRANT.equals(tokenErrorResponse.getError())) {
+				logger.info("Google grant of user {} was revoked or expired, unlinking their calendar", userId);
+				userRepository.unlinkGoogle(userId);
+				invalidate(userId);
+				return;
+			}
+			logger.warn("Google token refresh failed for user {}: {}", userId,
+					tokenErrorResponse == null ? "unknown error" : tokenErrorResponse.getError());
+		}
+	}
+
+	private record CachedClient(String refreshToken, Credential credential, Calendar calendar) {
+	}
+}
@@ -3,23 +3,23 @@ package com.taskpal.service;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.google.api.client.auth.oauth2.BearerToken;
-import com.google.api.client.auth.oauth2.ClientParametersAuthentication;
-import com.google.api.client.auth.oauth2.Credential;
 import com.google.api.client.googleapis.auth.oauth2.GoogleAuthorizationCodeFlow;
 import com.google.api.client.googleapis.auth.oauth2.GoogleClientSecrets;
+import com.google.api.client.googleapis.auth.oauth2.GoogleOAuthConstants;
 import com.google.api.client.googleapis.auth.oauth2.GoogleTokenResponse;
-import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
 import com.google.api.client.http.GenericUrl;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.http.HttpTransport;
 import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.google.api.client.util.DateTime;
@@ -27,12 +27,15 @@ import com.google.api.services.calendar.Calendar;
 import com.google.api.services.calendar.CalendarScopes;
 import com.google.api.services.calendar.model.Event;
 import com.google.api.services.calendar.model.EventDateTime;
+import com.taskpal.model.CalendarEventField;
 import com.taskpal.model.Task;
 import com.taskpal.model.User;
-import com.taskpal.repository.TaskRepository;
 import com.taskpal.repository.UserRepository;
 
+import io.micrometer.observation.annotation.Observed;
+
 @Service
+@Observed(name = "taskpal.calendar.google")
 public class GoogleCalendarService {
 
 	private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
@@ -47,42 +50,63 @@ public class GoogleCalendarService {
 	@Value("${google.redirect.uri}")
 	private String redirectUri;
 
+	@Value("${google.oauth.authorization-url:" + GoogleOAuthConstants.AUTHORIZATION_SERVER_URL + "}")
+	private String authorizationServerUrl;
+
+	@Value("${google.oauth.token-url:" + GoogleOAuthConstants.TOKEN_SERVER_URL + "}")
+	private String tokenServerUrl;
+
+	@Value("${google.http.connect-timeout-ms:3000}")
+	private int connectTimeoutMillis;
+
+	@Value("${google.http.read-timeout-ms:5000}")
+	private int readTimeoutMillis;
+
 	@Autowired
 	private UserRepository userRepository;
 	
 	@Autowired
-	private TaskRepository taskRepository;
+	private HttpTransport httpTransport;
+
+	@Autowired
+	private GoogleCalendarClientCache calendarClientCache;
+
+	@Autowired
+	private CalendarCircuitBreaker circuitBreaker;
+
+	private volatile GoogleAuthorizationCodeFlow flow;
 
 	public String authorize(User user) throws IOException, GeneralSecurityException {
 		GoogleAuthorizationCodeFlow flow = getFlow();
 		return flow.newAuthorizationUrl().setRedirectUri(redirectUri).setState(user.getId().toString()).build();
 	}
 
-	public void storeCredentials(String code, Long userId) throws IOException, GeneralSecurityException {
+	/**
+	 * Exchange the OAuth code for tokens and link the user's calendar.
+	 * Existing tasks are synced afterwards by {@link CalendarBackfillService}.
+	 *
+	 * @param code the authorization code
+	 * @param userId the user ID carried in the OAuth state
+	 * @return the updated user
+	 */
+	public User storeCredentials(String code, Long userId) throws IOException, GeneralSecurityException {
 		GoogleAuthorizationCodeFlow flow = getFlow();
 		GoogleTokenResponse response = flow.newTokenRequest(code).setRedirectUri(redirectUri).execute();
 
 		// Store the access token and refresh token in the user's account
 		User user = userRepository.findById(userId).orElseThrow();
 		user.setGoogleCalendarAccessToken(response.getAccessToken());
-		user.setGoogleCalendarRefreshToken(response.getRefreshToken());
+		// Google only returns a refresh token on first consent, keep the stored one otherwise
+		if (response.getRefreshToken() != null) {
+			user.setGoogleCalendarRefreshToken(response.getRefreshToken());
+		}
+		if (response.getExpiresInSeconds() != null) {
+			user.setGoogleCalendarTokenExpiry(LocalDateTime.now().plusSeconds(response.getExpiresInSeconds()));
+		}
 		user.setGoogle(true);
 		userRepository.save(user);
-		
-		List<Task> tasks = taskRepository.findByUser(user);
-		
-		for (Task task : tasks) {
-            try {
-                if (task.getGoogleEventId() == null) { // Only sync if not already synced
-                    String eventId = this.createCalendarEvent(user, task);
-                    task.setGoogleEventId(eventId);
-                    taskRepository.save(task); // Update task with event ID
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to sync task " + task.getId() + ": " + e.getMessage());
-            }
-        }
-
+		calendarClientCache.invalidate(userId);
+		return user;
 	}
 
 	public String createCalendarEvent(User user, Task task) throws IOException, GeneralSecurityException {
@@ -90,21 +114,20 @@ public class GoogleCalendarService {
 			return null;
 		}
 
-		// Initialize transport
-		final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
+		Calendar service = calendarClientCache.get(user);
 
-		// Create credential
-		Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
-				.setTransport(HTTP_TRANSPORT).setJsonFactory(JSON_FACTORY)
-				.setTokenServerUrl(new GenericUrl("https://oauth2.googleapis.com/token"))
-				.setClientAuthentication(new ClientParametersAuthentication(clientId, clientSecret)).build()
-				.setAccessToken(user.getGoogleCalendarAccessToken())
-				.setRefreshToken(user.getGoogleCalendarRefreshToken());
-
-		// Build Calendar service
-		Calendar service = new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, credential).setApplicationName("TaskPal")
-				.build();
+		// Insert event
+		Event event = buildEvent(task);
+		return circuitBreaker.call(user.getId(), () -> service.events().insert("primary", event).execute()).getId();
+	}
 
+	/**
+	 * Build the all-day calendar event representing a task.
+	 *
+	 * @param task the task
+	 * @return the event
+	 */
+	public Event buildEvent(Task task) {
 		// Handle LocalDate conversion
 		LocalDate dueDate = task.getDueDate();
 		if (dueDate == null) {
@@ -127,79 +150,79 @@ public class GoogleCalendarService {
 		event.setEnd(new EventDateTime().setDate(
 				new com.google.api.client.util.DateTime(true, endDateTime.getValue(), endDateTime.getTimeZoneShift()))
 				.setTimeZone(ZoneId.systemDefault().getId()));
-
-		// Insert event
-		return service.events().insert("primary", event).execute().getId();
+		return event;
 	}
 
-	private GoogleAuthorizationCodeFlow getFlow() throws IOException, GeneralSecurityException {
-		// Create client secrets object directly
-		GoogleClientSecrets.Details details = new GoogleClientSecrets.Details().setClientId(clientId)
-				.setClientSecret(clientSecret);
-
-		GoogleClientSecrets clientSecrets = new GoogleClientSecrets().setWeb(details);
-
-		return new GoogleAuthorizationCodeFlow.Builder(GoogleNetHttpTransport.newTrustedTransport(), JSON_FACTORY,
-				clientSecrets, SCOPES).setAccessType("offline").build();
+	private GoogleAuthorizationCodeFlow getFlow() {
+		GoogleAuthorizationCodeFlow current = flow;
+		if (current == null) {
+			// Create client secrets object directly
+			GoogleClientSecrets.Details details = new GoogleClientSecrets.Details().setClientId(clientId)
+					.setClientSecret(clientSecret);
+
+			GoogleClientSecrets clientSecrets = new GoogleClientSecrets().setWeb(details);
+
+			current = new GoogleAuthorizationCodeFlow.Builder(httpTransport, JSON_FACTORY, clientSecrets, SCOPES)
+					.setAccessType("offline")
+					.setAuthorizationServerEncodedUrl(authorizationServerUrl)
+					.setTokenServerUrl(new GenericUrl(tokenServerUrl))
+					.setRequestInitializer(request -> {
+						request.setConnectTimeout(connectTimeoutMillis);
+						request.setReadTimeout(readTimeoutMillis);
+					})
+					.build();
+			flow = current;
+		}
+		return current;
 	}
 	
-	public void updateCalendarEvent(User user, Task task) throws IOException, GeneralSecurityException {
-        if (user.getGoogleCalendarAccessToken() == null || task.getGoogleEventId() == null) {
+	/**
+	 * Patch the task's calendar event with only the changed fields.
+	 * No request is made when nothing calendar-visible changed.
+	 *
+	 * @param user the task owner
+	 * @param task the task holding the latest state
+	 * @param changedFields the fields to send
+	 */
+	public void patchCalendarEvent(User user, Task task, Set<CalendarEventField> changedFields) throws IOException {
+        if (user.getGoogleCalendarAccessToken() == null || task.getGoogleEventId() == null
+                || changedFields == null || changedFields.isEmpty()) {
             return;
         }
 
-        Calendar service = getCalendarService(user);
-        Event existingEvent = service.events().get("primary", task.getGoogleEventId()).execute();
-        
-        // Update event details
-        Event updatedEvent = updateEventFromTask(existingEvent, task);
-        
-        // Update the event
-        service.events().update("primary", task.getGoogleEventId(), updatedEvent).execute();
+        Event patch = new Event();
+        if (changedFields.contains(CalendarEventField.TITLE)) {
+            patch.setSummary(task.getTitle());
+        }
+        if (changedFields.contains(CalendarEventField.DESCRIPTION)) {
+            patch.setDescription(task.getDescription());
+        }
+        if (changedFields.contains(CalendarEventField.DUE_DATE)) {
+            validateTaskDueDate(task);
+            patch.setStart(createEventDateTime(getStartDateTime(task)))
+                    .setEnd(createEventDateTime(getEndDateTime(task)));
+        }
+
+        Calendar service = calendarClientCache.get(user);
+        circuitBreaker.call(user.getId(), () -> service.events().patch("primary", task.getGoogleEventId(), patch).execute());
     }
 	
-	public void deleteCalendarEvent(User user, Task task) throws IOException, GeneralSecurityException {
-        if (user.getGoogleCalendarAccessToken() == null || task.getGoogleEventId() == null) {
+	public void deleteCalendarEvent(User user, String googleEventId) throws IOException {
+        if (user.getGoogleCalendarAccessToken() == null || googleEventId == null) {
             return;
         }
 
-        Calendar service = getCalendarService(user);
-        service.events().delete("primary", task.getGoogleEventId()).execute();
-        
-        // Clear the Google Event ID from the task
-        task.setGoogleEventId(null);
-        taskRepository.save(task);
+        Calendar service = calendarClientCache.get(user);
+        try {
+            circuitBreaker.call(user.getId(), () -> service.events().delete("primary", googleEventId).execute());
+        } catch (GoogleJsonResponseException e) {
+            // Already removed on the Google side
+            if (e.getStatusCode() != 404 && e.getStatusCode() != 410) {
+                throw e;
+            }
+        }
     }
 	
-	private Calendar getCalendarService(User user) throws GeneralSecurityException, IOException {
-        final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
-        
-        Credential credential = new Credential.Builder(BearerToken.authorizationHeaderAccessMethod())
-                .setTransport(HTTP_TRANSPORT)
-                .setJsonFactory(JSON_FACTORY)
-                .setTokenServerUrl(new GenericUrl("https://oauth2.googleapis.com/token"))
-                .setClientAuthentication(new ClientParametersAuthentication(clientId, clientSecret))
-                .build()
-                .setAccessToken(user.getGoogleCalendarAccessToken())
-                .setRefreshToken(user.getGoogleCalendarRefreshToken());
-
-        return new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, credential)
-                .setApplicationName("TaskPal")
-                .build();
-    }
-	private Event updateEventFromTask(Event existingEvent, Task task) {
-        validateTaskDueDate(task);
-
-        DateTime startDateTime = getStartDateTime(task);
-        DateTime endDateTime = getEndDateTime(task);
-
-        return existingEvent
-                .setSummary(task.getTitle())
-                .setDescription(task.getDescription())
-                .setStart(createEventDateTime(startDateTime))
-                .setEnd(createEventDateTime(endDateTime));
-    }
-
 	private void validateTaskDueDate(Task task) {
         if (task.getDueDate() == null) {
             throw new IllegalArgumentException("Task due date cannot be null");
@@ -0,0 +1,97 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.taskpal.exception.CalendarUnavailableException;
+import com.taskpal.model.User;
+import com.taskpal.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Scheduled job refreshing Google access tokens shortly before they expire.
+ * Active users are paged in batches, so calendar calls almost never pay the refresh round trip inline.
+ * Users are split into id ranges, each refreshed by whichever node holds its lease.
+ */
+@Component
+@RequiredArgsConstructor
+public class GoogleTokenRefreshJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(GoogleTokenRefreshJob.class);
+
+	private final UserRepository userRepository;
+	private final GoogleCalendarClientCache calendarClientCache;
+	private final CalendarCircuitBreaker circuitBreaker;
+	private final JobCoordinator jobCoordinator;
+
+	@Value("${google.token-refresh.ahead:PT10M}")
+	private Duration refreshAhead;
+
+	@Value("${google.token-refresh.active-within:P14D}")
+	private Duration activeWithin;
+
+	@Value("${google.token-refresh.batch-size:100}")
+	private int batchSize;
+
+	@Value("${google.token-refresh.partitions:4}")
+	private int partitions;
+
+	@Value("${google.token-refresh.interval-ms:300000}")
+	private long intervalMs;
+
+	@Scheduled(fixedDelayString = "${google.token-refresh.interval-ms:300000}",
+			initialDelayString = "${google.token-refresh.initial-delay-ms:60000}")
+	public void refreshExpiringTokens() {
+		// Half the interval, so a node ticking late skips a partition another node just refreshed
+		jobCoordinator.runPartitioned("google-token-refresh", partitions, Duration.ofMillis(intervalMs / 2),
+				this::refreshPartition);
+	}
+
+	private void refreshPartition(JobCoordinator.Lease lease) {
+		JobCoordinator.Partition partition = lease.getPartition();
+		long maxUserId = userRepository.findMaxId();
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime before = now.plus(refreshAhead);
+		LocalDateTime activeSince = now.minus(activeWithin);
+
+		int refreshed = 0;
+		int failed = 0;
+		long afterId = partition.fromId(maxUserId) - 1;
+		long toId = partition.toId(maxUserId);
+		List<User> users;
+		do {
+			users = userRepository.findActiveWithTokenExpiringBefore(before, activeSince, afterId, toId,
+					Limit.of(batchSize));
+			for (User user : users) {
+				afterId = user.getId();
+				try {
+					// The refresh listener persists the new token
+					if (circuitBreaker.call(() -> calendarClientCache.getCredential(user).refreshToken())) {
+						refreshed++;
+					} else {
+						failed++;
+					}
+				} catch (CalendarUnavailableException e) {
+					logger.info("Google token refresh paused: {}", e.getMessage());
+					return;
+				} catch (Exception e) {
+					failed++;
+					logger.warn("Failed to refresh Google token for user {}: {}", user.getId(), e.getMessage());
+				}
+			}
+		} while (users.size() == batchSize && lease.isHeld());
+
+		if (refreshed > 0 || failed > 0) {
+			logger.info("Google token refresh finished: {} refreshed, {} failed", refreshed, failed);
+		}
+	}
+}
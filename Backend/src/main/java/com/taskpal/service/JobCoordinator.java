@@ -0,0 +1,233 @@
+package com.taskpal.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Coordinates scheduled jobs across nodes through leases in the {@code job_lease} table.
+ * <p>
+ * A job, or one partition of a job, only runs on the node that holds its lease. Leases are renewed in the
+ * background while the job runs, and a lease that stops being renewed because its node died expires and
+ * is taken over on the next tick of another node. A successful run records its completion time, so nodes
+ * whose schedules fire slightly later do not repeat it within the job's minimum interval. All times come
+ * from the database clock, so node clock skew does not matter.
+ * <p>
+ * A lease table is used rather than advisory locks because advisory locks belong to a session and would
+ * pin a pooled connection for the whole run. Queue workers that claim rows with {@code SKIP LOCKED} or
+ * conditional updates are already safe on many nodes and don't need this.
+ */
+@Component
+public class JobCoordinator {
+
+	private static final Logger logger = LoggerFactory.getLogger(JobCoordinator.class);
+
+	private static final String ACQUIRE_SQL = """
+			INSERT INTO job_lease (name, owner, lease_until)
+			VALUES (?, ?, LOCALTIMESTAMP + make_interval(secs => ?))
+			ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until
+			WHERE job_lease.lease_until < LOCALTIMESTAMP
+			  AND (job_lease.completed_at IS NULL OR job_lease.completed_at < LOCALTIMESTAMP - make_interval(secs => ?))
+			""";
+
+	private static final String RENEW_SQL = """
+			UPDATE job_lease SET lease_until = LOCALTIMESTAMP + make_interval(secs => ?)
+			WHERE name = ? AND owner = ?
+			""";
+
+	private static final String RELEASE_SQL = """
+			UPDATE job_lease SET lease_until = LOCALTIMESTAMP,
+			    completed_at = CASE WHEN ? THEN LOCALTIMESTAMP ELSE completed_at END
+			WHERE name = ? AND owner = ?
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String nodeId;
+	private final Duration leaseDuration;
+	private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService renewer;
+
+	public JobCoordinator(JdbcTemplate jdbcTemplate,
+			@Value("${app.jobs.node-id:}") String nodeId,
+			@Value("${app.jobs.lease:PT1M}") Duration leaseDuration) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.nodeId = nodeId.isBlank()
+				? ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8)
+				: nodeId;
+		this.leaseDuration = leaseDuration;
+		this.renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "job-lease-renewal");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, leaseDuration.toMillis() / 3);
+		renewer.scheduleWithFixedDelay(this::renewHeldLeases, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Run a job on this node if no other node is running it and it has not completed within {@code minInterval}.
+	 *
+	 * @param job the job name
+	 * @param minInterval how long a successful run suppresses further runs
+	 * @param task the work; long loops should stop once {@link Lease#isHeld()} turns false
+	 * @return whether the job ran here
+	 */
+	public boolean runExclusive(String job, Duration minInterval, Consumer<Lease> task) {
+		return run(job, Partition.ALL, minInterval, task);
+	}
+
+	/**
+	 * Run the partitions of a job that no other node is running. Each node starts at a random partition,
+	 * so nodes ticking together spread over the partitions instead of queueing on the same lease.
+	 *
+	 * @param job the job name
+	 * @param partitions the number of partitions
+	 * @param minInterval how long a successful run of a partition suppresses further runs of it
+	 * @param task the work for one partition; it should only touch ids in {@link Lease#getPartition()}
+	 * @return the number of partitions run here
+	 */
+	public int runPartitioned(String job, int partitions, Duration minInterval, Consumer<Lease> task) {
+		int start = ThreadLocalRandom.current().nextInt(partitions);
+		int ran = 0;
+		for (int i = 0; i < partitions; i++) {
+			int index = (start + i) % partitions;
+			if (run(job + "#" + index, new Partition(index, partitions), minInterval, task)) {
+				ran++;
+			}
+		}
+		return ran;
+	}
+
+	public String getNodeId() {
+		return nodeId;
+	}
+
+	private boolean run(String name, Partition partition, Duration minInterval, Consumer<Lease> task) {
+		if (jdbcTemplate.update(ACQUIRE_SQL, name, nodeId, seconds(leaseDuration), seconds(minInterval)) == 0) {
+			return false;
+		}
+		Lease lease = new Lease(name, partition);
+		heldLeases.put(name, lease);
+		boolean completed = false;
+		try {
+			task.accept(lease);
+			completed = true;
+		} finally {
+			heldLeases.remove(name);
+			try {
+				// Once taken over the owner no longer matches and this is a no-op
+				jdbcTemplate.update(RELEASE_SQL, completed, name, nodeId);
+			} catch (RuntimeException e) {
+				logger.warn("Failed to release job lease {}, it will expire: {}", name, e.getMessage());
+			}
+		}
+		return true;
+	}
+
+	private void renewHeldLeases() {
+		for (Lease lease : heldLeases.values()) {
+			try {
+				if (jdbcTemplate.update(RENEW_SQL, seconds(leaseDuration), lease.name, nodeId) == 0) {
+					lose(lease, "taken over by another node");
+				} else {
+					lease.renewedAt = System.nanoTime();
+				}
+			} catch (RuntimeException e) {
+				// Without the database another node may already have taken over
+				if (System.nanoTime() - lease.renewedAt > leaseDuration.toNanos()) {
+					lose(lease, "not renewed before it expired: " + e.getMessage());
+				}
+			}
+		}
+	}
+
+	private void lose(Lease lease, String reason) {
+		lease.held = false;
+		heldLeases.remove(lease.name);
+		logger.warn("Lost job lease {}: {}", lease.name, reason);
+	}
+
+	private static double seconds(Duration duration) {
+		return duration.toMillis() / 1000.0;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		renewer.shutdownNow();
+	}
+
+	/**
+	 * A slice of the user id space. Ids up to the current highest one are split into {@code count} contiguous
+	 * ranges, the last one open-ended, so a partition is a single range of any index leading with the user id.
+	 */
+	public record Partition(int index, int count) {
+
+		public static final Partition ALL = new Partition(0, 1);
+
+		/**
+		 * @param maxId the highest id when the run starts
+		 * @return the first id of this partition
+		 */
+		public long fromId(long maxId) {
+			return index * span(maxId);
+		}
+
+		/**
+		 * @param maxId the highest id when the run starts
+		 * @return the first id after this partition
+		 */
+		public long toId(long maxId) {
+			return index == count - 1 ? Long.MAX_VALUE : (index + 1) * span(maxId);
+		}
+
+		private long span(long maxId) {
+			return maxId / count + 1;
+		}
+	}
+
+	/**
+	 * A lease held by this node for the duration of one run.
+	 */
+	public static final class Lease {
+
+		private final String name;
+		private final Partition partition;
+		private volatile boolean held = true;
+		private volatile long renewedAt = System.nanoTime();
+
+		private Lease(String name, Partition partition) {
+			this.name = name;
+			this.partition = partition;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Partition getPartition() {
+			return partition;
+		}
+
+		/**
+		 * @return false once the lease was lost, after which another node may run the same work
+		 */
+		public boolean isHeld() {
+			return held;
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.taskpal.service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry rules shared by the calendar and email outboxes.
+ */
+final class OutboxRetry {
+
+	// Length of the outboxes' last_error column
+	private static final int MAX_ERROR_LENGTH = 1000;
+
+	private OutboxRetry() {
+	}
+
+	/**
+	 * Delay before the next attempt: exponential from {@code initial}, capped at {@code max}, with jitter over
+	 * the upper half so rows that failed together do not retry together.
+	 *
+	 * @param attempts the attempts made so far, at least 1
+	 * @param initial the delay after the first attempt
+	 * @param max the longest delay
+	 * @return the delay
+	 */
+	static Duration backoff(int attempts, Duration initial, Duration max) {
+		long base = initial.toMillis() << Math.min(attempts - 1, 20);
+		long capped = Math.min(base, max.toMillis());
+		return Duration.ofMillis(capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1));
+	}
+
+	/**
+	 * @param error the failure
+	 * @return the failure as stored in {@code last_error}
+	 */
+	static String describe(Exception error) {
+		String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+		return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+	}
+}
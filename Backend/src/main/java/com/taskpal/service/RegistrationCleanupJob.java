@@ -0,0 +1,111 @@
+package com.taskpal.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Scheduled job purging signups that were never verified and whose verification token expired a while ago.
+ * <p>
+ * Rows are deleted in small chunks picked through the partial index {@code idx_users_unverified_expiry},
+ * with a pause between chunks, so a backlog of spam signups never turns into one long transaction or a
+ * burst of index churn. Users that somehow own tasks are left alone.
+ */
+@Component
+public class RegistrationCleanupJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(RegistrationCleanupJob.class);
+
+	private static final String DELETE_CHUNK_SQL = """
+			DELETE FROM users WHERE id IN (
+			    SELECT u.id FROM users u
+			    WHERE u.email_verified = false
+			      AND u.verification_token_expiry < ?
+			      AND NOT EXISTS (SELECT 1 FROM task t WHERE t.user_id = u.id)
+			    ORDER BY u.verification_token_expiry
+			    LIMIT ?
+			    FOR UPDATE SKIP LOCKED)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final JobCoordinator jobCoordinator;
+	private final Counter deletedCounter;
+
+	@Value("${app.cleanup.registrations.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.cleanup.registrations.grace:P7D}")
+	private Duration grace;
+
+	@Value("${app.cleanup.registrations.chunk-size:500}")
+	private int chunkSize;
+
+	@Value("${app.cleanup.registrations.pause:PT0.2S}")
+	private Duration pause;
+
+	@Value("${app.cleanup.registrations.max-per-run:50000}")
+	private int maxPerRun;
+
+	public RegistrationCleanupJob(JdbcTemplate jdbcTemplate, JobCoordinator jobCoordinator,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.jobCoordinator = jobCoordinator;
+		this.deletedCounter = Counter.builder("taskpal.cleanup.registrations.deleted")
+				.description("Expired unverified signups removed")
+				.register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${app.cleanup.registrations.cron:0 30 * * * *}")
+	public void purgeExpiredRegistrations() {
+		if (enabled) {
+			jobCoordinator.runExclusive("registration-cleanup", Duration.ofMinutes(30), lease -> run(lease::isHeld));
+		}
+	}
+
+	/**
+	 * Delete expired unverified signups in chunks until none are left or the per-run cap is reached.
+	 *
+	 * @param keepRunning checked before each chunk, to stop once the job lease is lost
+	 * @return the number of deleted users
+	 */
+	public int run(BooleanSupplier keepRunning) {
+		Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(grace));
+		int deleted = 0;
+		int chunk;
+		do {
+			chunk = jdbcTemplate.update(DELETE_CHUNK_SQL, cutoff, Math.min(chunkSize, maxPerRun - deleted));
+			deleted += chunk;
+			deletedCounter.increment(chunk);
+		} while (chunk == chunkSize && deleted < maxPerRun && keepRunning.getAsBoolean() && pause());
+
+		if (deleted > 0) {
+			logger.info("Removed {} unverified signups whose verification expired before {}", deleted, cutoff);
+		}
+		return deleted;
+	}
+
+	// Give the table's other writers and replication room between chunks
+	private boolean pause() {
+		if (pause.isZero()) {
+			return true;
+		}
+		try {
+			Thread.sleep(pause);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.taskpal.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taskpal.config.SqlMonitorProperties;
+
+import jakarta.annotation.PreDestroy;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * Bounded in-memory log of the most recent slow SQL statements, each with its {@code EXPLAIN} plan.
+ * <p>
+ * Plans are taken on a background thread with the statement's original parameters, so the request that ran
+ * the slow statement never waits for them, and cached per statement for a while so a statement that is slow
+ * on every call is explained once. The parameters are only used for the plan and are not kept, as they may
+ * hold personal data. When the explain thread falls behind, statements are logged without a plan.
+ */
+@Component
+public class SlowQueryLog {
+
+	private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+	private final SqlMonitorProperties properties;
+	private final Deque<SlowQuery> entries = new ArrayDeque<>();
+	private final Cache<String, String> plans = Caffeine.newBuilder()
+			.maximumSize(500)
+			.expireAfterWrite(Duration.ofMinutes(10))
+			.build();
+	private final ThreadPoolExecutor explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+			new ArrayBlockingQueue<>(32), runnable -> {
+				Thread thread = new Thread(runnable, "slow-query-explain");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+	public SlowQueryLog(SqlMonitorProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Record a slow statement and explain it in the background.
+	 *
+	 * @param dataSource the data source to explain on; it must not feed back into this log
+	 * @param sql the statement
+	 * @param parameters the parameters it ran with
+	 * @param elapsedMillis how long it took
+	 */
+	public void record(DataSource dataSource, String sql, List<ParameterSetOperation> parameters, long elapsedMillis) {
+		logger.warn("Slow SQL ({} ms): {}", elapsedMillis, sql);
+		LocalDateTime at = LocalDateTime.now();
+		String cached = plans.getIfPresent(sql);
+		if (cached != null || !properties.isExplain() || !isExplainable(sql)) {
+			add(new SlowQuery(at, elapsedMillis, sql, cached));
+			return;
+		}
+		List<ParameterSetOperation> copy = List.copyOf(parameters);
+		try {
+			explainer.execute(() -> add(new SlowQuery(at, elapsedMillis, sql, explain(dataSource, sql, copy))));
+		} catch (RejectedExecutionException e) {
+			add(new SlowQuery(at, elapsedMillis, sql, null));
+		}
+	}
+
+	/**
+	 * @return the captured statements, newest first
+	 */
+	public List<SlowQuery> getEntries() {
+		synchronized (entries) {
+			return new ArrayList<>(entries);
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	private void add(SlowQuery query) {
+		synchronized (entries) {
+			entries.addFirst(query);
+			while (entries.size() > properties.getSlowQueryCapacity()) {
+				entries.removeLast();
+			}
+		}
+	}
+
+	// EXPLAIN without ANALYZE only plans the statement, so it is safe for writes too
+	private static boolean isExplainable(String sql) {
+		String verb = sql.stripLeading().split("\\s", 2)[0].toLowerCase(Locale.ROOT);
+		return switch (verb) {
+			case "select", "with", "update", "delete", "insert" -> true;
+			default -> false;
+		};
+	}
+
+	private String explain(DataSource dataSource, String sql, List<ParameterSetOperation> parameters) {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+			for (ParameterSetOperation parameter : parameters) {
+				parameter.getMethod().invoke(statement, parameter.getArgs());
+			}
+			StringJoiner plan = new StringJoiner("\n");
+			try (ResultSet resultSet = statement.executeQuery()) {
+				while (resultSet.next()) {
+					plan.add(resultSet.getString(1));
+				}
+			}
+			plans.put(sql, plan.toString());
+			return plan.toString();
+		} catch (Exception e) {
+			logger.debug("Could not explain {}: {}", sql, e.getMessage());
+			return null;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		explainer.shutdownNow();
+	}
+
+	/**
+	 * A captured slow statement.
+	 *
+	 * @param at when it finished
+	 * @param elapsedMillis how long it took
+	 * @param sql the statement, without parameter values
+	 * @param plan its {@code EXPLAIN} output, or null when unavailable
+	 */
+	public record SlowQuery(LocalDateTime at, long elapsedMillis, String sql, String plan) {
+	}
+}
@@ -0,0 +1,10 @@
+package com.taskpal.service;
+
+import com.taskpal.dto.TaskEventDto;
+
+/**
+ * Published by {@link TaskService} and {@link CalendarPullService} inside the transaction making the change,
+ * and delivered to the owner's event streams once that transaction commits.
+ */
+public record TaskChangedEvent(Long userId, TaskEventDto event) {
+}
@@ -0,0 +1,298 @@
+package com.taskpal.service;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taskpal.model.EmailOutboxMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Daily job emailing each user a digest of their overdue tasks and tasks due today or tomorrow.
+ * <p>
+ * Open tasks are scanned in keyset pages ordered by {@code (user_id, due_date, id)}, which the partial
+ * index {@code idx_task_open_due} serves directly, so every page is a short index range read and no
+ * transaction is held across the run. Rows for one user are contiguous, so digests are assembled while
+ * streaming and handed to the email outbox in batches. Each batch marks its users' {@code lastDigestDate}
+ * with a conditional update in the same transaction as the insert; a restarted or concurrent run skips
+ * users that already got today's digest. Users are split into id ranges so several nodes share a run.
+ */
+@Component
+public class TaskDigestJob {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskDigestJob.class);
+
+	private static final String DUE_TASKS_SQL = """
+			SELECT t.id, t.user_id, t.title, t.due_date, u.name, u.email
+			FROM task t JOIN users u ON u.id = t.user_id
+			WHERE t.completed = false
+			  AND t.due_date <= ?
+			  AND u.email_verified = true
+			  AND (u.last_digest_date IS NULL OR u.last_digest_date < ?)
+			  AND t.user_id >= ? AND t.user_id < ?
+			  AND (t.user_id, t.due_date, t.id) > (?, ?, ?)
+			ORDER BY t.user_id, t.due_date, t.id
+			LIMIT ?
+			""";
+
+	private static final String MAX_USER_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM users";
+
+	private static final String CLAIM_USER_SQL = """
+			UPDATE users SET last_digest_date = ?
+			WHERE id = ? AND (last_digest_date IS NULL OR last_digest_date < ?)
+			""";
+
+	private static final RowMapper<DueTask> DUE_TASK_MAPPER = (rs, rowNum) -> new DueTask(rs.getLong("id"),
+			rs.getLong("user_id"), rs.getString("title"), rs.getObject("due_date", LocalDate.class),
+			rs.getString("name"), rs.getString("email"));
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final EmailOutboxService emailOutboxService;
+	private final EmailTemplates emailTemplates;
+	private final JobCoordinator jobCoordinator;
+
+	private final Timer runTimer;
+	private final Counter tasksScanned;
+	private final Counter digestsQueued;
+
+	@Value("${app.digest.enabled:true}")
+	private boolean enabled;
+
+	@Value("${app.digest.partitions:4}")
+	private int partitions;
+
+	@Value("${app.digest.min-interval:PT12H}")
+	private Duration minInterval;
+
+	@Value("${app.digest.page-size:1000}")
+	private int pageSize;
+
+	@Value("${app.digest.email-batch-size:200}")
+	private int emailBatchSize;
+
+	@Value("${app.digest.max-tasks-per-section:20}")
+	private int maxTasksPerSection;
+
+	public TaskDigestJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+			EmailOutboxService emailOutboxService, EmailTemplates emailTemplates, JobCoordinator jobCoordinator,
+			MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.emailOutboxService = emailOutboxService;
+		this.emailTemplates = emailTemplates;
+		this.jobCoordinator = jobCoordinator;
+		this.runTimer = Timer.builder("taskpal.digest.duration").register(meterRegistry);
+		this.tasksScanned = Counter.builder("taskpal.digest.tasks.scanned").register(meterRegistry);
+		this.digestsQueued = Counter.builder("taskpal.digest.emails.queued").register(meterRegistry);
+	}
+
+	@Scheduled(cron = "${app.digest.cron:0 0 7 * * *}")
+	public void sendDailyDigests() {
+		if (enabled) {
+			LocalDate today = LocalDate.now();
+			jobCoordinator.runPartitioned("digest", partitions, minInterval,
+					lease -> run(today, lease.getPartition(), lease::isHeld));
+		}
+	}
+
+	/**
+	 * Build and queue the digests for one day.
+	 *
+	 * @param today the digest date
+	 * @return the number of digests queued
+	 */
+	public int run(LocalDate today) {
+		return run(today, JobCoordinator.Partition.ALL, () -> true);
+	}
+
+	/**
+	 * Build and queue the digests for one day and one partition of the users.
+	 *
+	 * @param today the digest date
+	 * @param partition the users to cover
+	 * @param keepRunning checked before each page, to stop once the job lease is lost
+	 * @return the number of digests queued
+	 */
+	public int run(LocalDate today, JobCoordinator.Partition partition, BooleanSupplier keepRunning) {
+		long started = System.nanoTime();
+		LocalDate until = today.plusDays(1);
+
+		long maxUserId = partition.count() == 1 ? 0 : jdbcTemplate.queryForObject(MAX_USER_ID_SQL, Long.class);
+		long fromId = partition.fromId(maxUserId);
+		long toId = partition.toId(maxUserId);
+
+		long lastUserId = 0;
+		LocalDate lastDueDate = LocalDate.of(1, 1, 1);
+		long lastTaskId = 0;
+		long scanned = 0;
+		int queued = 0;
+
+		Digest current = null;
+		List<Digest> batch = new ArrayList<>();
+		List<DueTask> page;
+		do {
+			page = jdbcTemplate.query(DUE_TASKS_SQL, DUE_TASK_MAPPER, Date.valueOf(until), Date.valueOf(today),
+					fromId, toId, lastUserId, Date.valueOf(lastDueDate), lastTaskId,
+					pageSize);
+			for (DueTask task : page) {
+				if (current == null || current.userId != task.userId()) {
+					if (current != null) {
+						batch.add(current);
+						if (batch.size() >= emailBatchSize) {
+							queued += flush(batch, today);
+							batch.clear();
+						}
+					}
+					current = new Digest(task.userId(), task.name(), task.email());
+				}
+				current.add(task, today);
+			}
+			if (!page.isEmpty()) {
+				DueTask last = page.get(page.size() - 1);
+				lastUserId = last.userId();
+				lastDueDate = last.dueDate();
+				lastTaskId = last.id();
+			}
+			scanned += page.size();
+			tasksScanned.increment(page.size());
+		} while (page.size() == pageSize && keepRunning.getAsBoolean());
+
+		if (current != null) {
+			batch.add(current);
+		}
+		queued += flush(batch, today);
+
+		long elapsed = System.nanoTime() - started;
+		runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		logger.info("Digest run for {} (partition {}/{}) queued {} emails from {} tasks in {} ms", today,
+				partition.index(), partition.count(), queued, scanned, TimeUnit.NANOSECONDS.toMillis(elapsed));
+		return queued;
+	}
+
+	// Render outside the transaction, then claim the users and queue their emails atomically
+	private int flush(List<Digest> digests, LocalDate today) {
+		if (digests.isEmpty()) {
+			return 0;
+		}
+		List<EmailOutboxMessage> messages = digests.stream().map(this::toMessage).toList();
+		List<Object[]> claims = digests.stream()
+				.map(digest -> new Object[] { Date.valueOf(today), digest.userId, Date.valueOf(today) })
+				.toList();
+
+		Integer queued = transactionTemplate.execute(status -> {
+			int[] counts = jdbcTemplate.batchUpdate(CLAIM_USER_SQL, claims);
+			List<EmailOutboxMessage> claimed = new ArrayList<>();
+			for (int i = 0; i < counts.length; i++) {
+				if (counts[i] > 0) {
+					claimed.add(messages.get(i));
+				}
+			}
+			emailOutboxService.enqueueAll(claimed);
+			return claimed.size();
+		});
+		int count = queued == null ? 0 : queued;
+		digestsQueued.increment(count);
+		return count;
+	}
+
+	private EmailOutboxMessage toMessage(Digest digest) {
+		StringBuilder sections = new StringBuilder();
+		appendSection(sections, "Overdue", digest.overdue, digest.overdueCount);
+		appendSection(sections, "Due today", digest.dueToday, digest.dueTodayCount);
+		appendSection(sections, "Due tomorrow", digest.dueTomorrow, digest.dueTomorrowCount);
+		String body = emailTemplates.render("digest", Map.of("name", digest.name, "sections", sections));
+		return EmailOutboxMessage.builder()
+				.recipient(digest.email)
+				.subject(subject(digest))
+				.body(body)
+				.build();
+	}
+
+	private void appendSection(StringBuilder out, String heading, List<DueTask> tasks, int count) {
+		if (count == 0) {
+			return;
+		}
+		StringBuilder rows = new StringBuilder();
+		EmailTemplate row = emailTemplates.get("digest-task");
+		for (DueTask task : tasks) {
+			row.render(Map.of("title", task.title(), "dueDate", task.dueDate()), rows);
+		}
+		emailTemplates.get("digest-section").render(Map.of("heading", heading, "count", count, "tasks", rows), out);
+	}
+
+	private String subject(Digest digest) {
+		List<String> parts = new ArrayList<>();
+		if (digest.overdueCount > 0) {
+			parts.add(digest.overdueCount + " overdue");
+		}
+		if (digest.dueTodayCount > 0) {
+			parts.add(digest.dueTodayCount + " due today");
+		}
+		if (digest.dueTomorrowCount > 0) {
+			parts.add(digest.dueTomorrowCount + " due tomorrow");
+		}
+		return "Your tasks: " + String.join(", ", parts);
+	}
+
+	private record DueTask(long id, long userId, String title, LocalDate dueDate, String name, String email) {
+	}
+
+	/**
+	 * One user's digest; only the first tasks of each section are kept, the rest are counted.
+	 */
+	private class Digest {
+
+		private final long userId;
+		private final String name;
+		private final String email;
+		private final List<DueTask> overdue = new ArrayList<>();
+		private final List<DueTask> dueToday = new ArrayList<>();
+		private final List<DueTask> dueTomorrow = new ArrayList<>();
+		private int overdueCount;
+		private int dueTodayCount;
+		private int dueTomorrowCount;
+
+		private Digest(long userId, String name, String email) {
+			this.userId = userId;
+			this.name = name;
+			this.email = email;
+		}
+
+		private void add(DueTask task, LocalDate today) {
+			if (task.dueDate().isBefore(today)) {
+				overdueCount++;
+				keep(overdue, task);
+			} else if (task.dueDate().isEqual(today)) {
+				dueTodayCount++;
+				keep(dueToday, task);
+			} else {
+				dueTomorrowCount++;
+				keep(dueTomorrow, task);
+			}
+		}
+
+		private void keep(List<DueTask> section, DueTask task) {
+			if (section.size() < maxTasksPerSection) {
+				section.add(task);
+			}
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package com.taskpal.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.taskpal.dto.TaskEventDto;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Server-Sent Events streams of each user's task changes, so open tabs stay current without re-fetching
+ * the task list.
+ * <p>
+ * Streams are async servlet responses: an idle connection holds no thread, only its emitter. Changes are
+ * pushed after their transaction commits, so a rolled back edit is never seen. Each user's last
+ * {@code replay-size} events are kept for {@code replay-window}, and a client reconnecting with
+ * {@code Last-Event-ID} is sent what it missed. If it missed more than that, or its id comes from another
+ * node or an earlier run, it gets a {@code resync} event and should fetch the list once. Comment-only
+ * heartbeats keep proxies from closing idle streams and reveal dead connections.
+ * <p>
+ * Publishing never writes to a socket. Events are put on each stream's queue of {@code send-queue} entries
+ * and written by a pool of {@code send-threads}, so a slow client cannot hold up the committing request or
+ * the scheduler. A stream whose queue is full, or whose current write has taken longer than
+ * {@code send-timeout}, is dropped; the client reconnects and resumes from its last event. The write itself
+ * is only abandoned when the container's socket timeout ends it.
+ * <p>
+ * Events only reach streams on the node that made the change. With several nodes behind a load balancer,
+ * either route a user's streams to the node serving their writes or reconnect after a {@code resync}.
+ */
+@Service
+public class TaskEventStream {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskEventStream.class);
+
+	static final String RESYNC = "resync";
+
+	private final contextService contextService;
+	private final long timeoutMillis;
+	private final int replaySize;
+	private final long replayWindowNanos;
+	private final int sendQueue;
+	private final long sendTimeoutNanos;
+	private final ExecutorService sender;
+
+	private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+	// Event ids are "<epoch>-<sequence>"; the epoch tells this run's ids from those of other nodes and restarts
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	/**
+	 * One user's open streams and recent events. Publishing and subscribing lock the channel, so a replay
+	 * cannot interleave with a live event; neither does any I/O while holding it.
+	 */
+	private static final class Channel {
+
+		private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+		private final Deque<Sent> recent = new ArrayDeque<>();
+		// Sequence of the newest event dropped from the replay buffer; older ids can no longer be resumed
+		private long droppedUpTo;
+		private long lastActivity = System.nanoTime();
+
+		// Whatever happened before the channel existed is unknown to it
+		private Channel(long droppedUpTo) {
+			this.droppedUpTo = droppedUpTo;
+		}
+	}
+
+	private record Sent(long sequence, long at, TaskEventDto event) {
+	}
+
+	/**
+	 * One open stream: its emitter and the events waiting to be written to it. At most one sender thread
+	 * drains a subscriber at a time, which keeps its events in order.
+	 */
+	private final class Subscriber implements Runnable {
+
+		private final SseEmitter emitter;
+		private final Channel channel;
+		private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		private final AtomicBoolean completed = new AtomicBoolean();
+		private volatile boolean closed;
+		// When the write in progress started, 0 between writes
+		private volatile long sendingSince;
+
+		private Subscriber(SseEmitter emitter, Channel channel) {
+			this.emitter = emitter;
+			this.channel = channel;
+			this.queue = new ArrayBlockingQueue<>(sendQueue);
+		}
+
+		// Queues an event without blocking; a subscriber that has fallen this far behind is dropped
+		private void offer(SseEmitter.SseEventBuilder event) {
+			if (closed) {
+				return;
+			}
+			if (queue.offer(event)) {
+				schedule();
+			} else {
+				close("fell behind by " + queue.size() + " events");
+			}
+		}
+
+		private boolean isStalled(long now) {
+			long since = sendingSince;
+			return since != 0 && now - since > sendTimeoutNanos;
+		}
+
+		// Stops publishing to the stream; the emitter is completed by the sender once no write is in progress
+		private void close(String reason) {
+			if (!closed) {
+				logger.debug("Dropping task event stream: {}", reason);
+				closed = true;
+			}
+			channel.subscribers.remove(this);
+			schedule();
+		}
+
+		// The emitter completed or failed on the container side
+		private void ended() {
+			closed = true;
+			completed.set(true);
+			channel.subscribers.remove(this);
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				try {
+					sender.execute(this);
+				} catch (RejectedExecutionException e) {
+					scheduled.set(false);
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				SseEmitter.SseEventBuilder event;
+				while (!closed && (event = queue.poll()) != null) {
+					sendingSince = System.nanoTime();
+					try {
+						emitter.send(event);
+					} catch (IOException | IllegalStateException e) {
+						closed = true;
+						channel.subscribers.remove(this);
+						logger.debug("Dropping task event stream: {}", e.getMessage());
+					} finally {
+						sendingSince = 0;
+					}
+				}
+				// The client is gone; completing normally keeps the error handlers from writing JSON to an event stream
+				if (closed && completed.compareAndSet(false, true)) {
+					queue.clear();
+					emitter.complete();
+				}
+			} finally {
+				scheduled.set(false);
+			}
+			// An event queued after the last poll found the subscriber still scheduled
+			if (!closed && !queue.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+
+	public TaskEventStream(contextService contextService, MeterRegistry meterRegistry,
+			@Value("${app.task-events.timeout:PT30M}") Duration timeout,
+			@Value("${app.task-events.replay-size:100}") int replaySize,
+			@Value("${app.task-events.replay-window:PT10M}") Duration replayWindow,
+			@Value("${app.task-events.send-threads:4}") int sendThreads,
+			@Value("${app.task-events.send-queue:256}") int sendQueue,
+			@Value("${app.task-events.send-timeout:PT10S}") Duration sendTimeout) {
+		this.contextService = contextService;
+		this.timeoutMillis = timeout.toMillis();
+		this.replaySize = replaySize;
+		this.replayWindowNanos = replayWindow.toNanos();
+		this.sendQueue = sendQueue;
+		this.sendTimeoutNanos = sendTimeout.toNanos();
+		AtomicInteger counter = new AtomicInteger();
+		this.sender = Executors.newFixedThreadPool(sendThreads, runnable -> {
+			Thread thread = new Thread(runnable, "task-events-" + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		Gauge.builder("taskpal.task-events.connections", this, TaskEventStream::getConnections)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Open a stream of the current user's task changes.
+	 *
+	 * @param lastEventId the id of the last event the client saw, from the {@code Last-Event-ID} header
+	 * @return the emitter, completed when the timeout passes or the client goes away
+	 */
+	public SseEmitter subscribe(String lastEventId) {
+		Long userId = contextService.getCurrentUser().getId();
+		SseEmitter emitter = createEmitter();
+		Channel channel = channels.computeIfAbsent(userId, id -> new Channel(sequence.get()));
+		Subscriber subscriber = new Subscriber(emitter, channel);
+		synchronized (channel) {
+			channel.lastActivity = System.nanoTime();
+			if (lastEventId != null && !lastEventId.isBlank()) {
+				replay(channel, subscriber, lastEventId);
+			}
+			channel.subscribers.add(subscriber);
+		}
+		emitter.onCompletion(subscriber::ended);
+		// Ending the stream on timeout is routine; the client reconnects with its Last-Event-ID
+		emitter.onTimeout(() -> {
+			boolean complete = subscriber.completed.compareAndSet(false, true);
+			subscriber.ended();
+			if (complete) {
+				emitter.complete();
+			}
+		});
+		emitter.onError(error -> subscriber.ended());
+		return emitter;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onTaskChanged(TaskChangedEvent changed) {
+		Channel channel = channels.computeIfAbsent(changed.userId(), id -> new Channel(sequence.get()));
+		synchronized (channel) {
+			Sent sent = new Sent(sequence.incrementAndGet(), System.nanoTime(), changed.event());
+			channel.recent.addLast(sent);
+			channel.lastActivity = sent.at();
+			while (channel.recent.size() > replaySize) {
+				channel.droppedUpTo = channel.recent.removeFirst().sequence();
+			}
+			for (Subscriber subscriber : List.copyOf(channel.subscribers)) {
+				subscriber.offer(event(sent));
+			}
+		}
+	}
+
+	@Scheduled(fixedRateString = "${app.task-events.heartbeat-interval-ms:15000}")
+	public void heartbeat() {
+		long now = System.nanoTime();
+		channels.forEach((userId, channel) -> {
+			synchronized (channel) {
+				while (!channel.recent.isEmpty() && now - channel.recent.peekFirst().at() > replayWindowNanos) {
+					channel.droppedUpTo = channel.recent.removeFirst().sequence();
+				}
+				for (Subscriber subscriber : List.copyOf(channel.subscribers)) {
+					if (subscriber.isStalled(now)) {
+						subscriber.close("write stalled for over " + Duration.ofNanos(sendTimeoutNanos));
+					} else if (subscriber.queue.isEmpty()) {
+						subscriber.offer(SseEmitter.event().comment("heartbeat"));
+					}
+				}
+				if (channel.subscribers.isEmpty() && now - channel.lastActivity > replayWindowNanos) {
+					channels.remove(userId, channel);
+				}
+			}
+		});
+	}
+
+	public int getConnections() {
+		return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+	}
+
+	SseEmitter createEmitter() {
+		return new SseEmitter(timeoutMillis);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		sender.shutdownNow();
+	}
+
+	// Queues what the client missed, or a resync if that is unknown or more than the queue holds
+	private void replay(Channel channel, Subscriber subscriber, String lastEventId) {
+		long lastSequence = parseSequence(lastEventId);
+		List<Sent> missed = new ArrayList<>();
+		if (lastSequence >= channel.droppedUpTo) {
+			for (Sent sent : channel.recent) {
+				if (sent.sequence() > lastSequence) {
+					missed.add(sent);
+				}
+			}
+		}
+		if (lastSequence < channel.droppedUpTo || missed.size() > sendQueue) {
+			subscriber.offer(SseEmitter.event().name(RESYNC).data(""));
+			return;
+		}
+		missed.forEach(sent -> subscriber.offer(event(sent)));
+	}
+
+	// Ids from another node or run resume nothing
+	private long parseSequence(String eventId) {
+		int dash = eventId.lastIndexOf('-');
+		if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(eventId.substring(dash + 1));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private SseEmitter.SseEventBuilder event(Sent sent) {
+		return SseEmitter.event()
+				.id(epoch + "-" + sent.sequence())
+				.name(sent.event().getType().name())
+				.data(sent.event());
+	}
+}
@@ -1,41 +1,56 @@
 package com.taskpal.service;
 
-import java.io.IOException;
-import java.security.GeneralSecurityException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.taskpal.dto.TaskEventDto;
 import com.taskpal.dto.TaskRequestDto;
 import com.taskpal.dto.TaskResponseDto;
 import com.taskpal.exception.BadRequestException;
+import com.taskpal.exception.ConflictException;
+import com.taskpal.model.CalendarEventField;
+import com.taskpal.model.CalendarSyncOperation;
 import com.taskpal.model.Task;
+import com.taskpal.model.TaskEventType;
 import com.taskpal.model.User;
 import com.taskpal.repository.TaskRepository;
 import com.taskpal.repository.UserRepository;
 
+import io.micrometer.observation.annotation.Observed;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
+@Observed(name = "taskpal.tasks")
 public class TaskService {
 
 	private final TaskRepository taskRepository;
 	private final contextService contextService;
-	private final GoogleCalendarService googleCalendarService;
+	private final CalendarOutboxService calendarOutboxService;
+	private final ApplicationEventPublisher eventPublisher;
 
-	private double calculatePriorityScore(int weight, LocalDate dueDate) {
+	private static final Set<String> PATCHABLE_FIELDS =
+			Set.of("title", "description", "dueDate", "weight", "completed", "version");
+
+	static double calculatePriorityScore(int weight, LocalDate dueDate) {
 		long daysUntilDue = ChronoUnit.DAYS.between(LocalDate.now(), dueDate);
 		return weight / (daysUntilDue + 1.0); // +1 to avoid division by 0
 	}
 
 	@Transactional
-	public TaskResponseDto addTask(TaskRequestDto dto) throws IOException, GeneralSecurityException {
+	public TaskResponseDto addTask(TaskRequestDto dto) {
 		User user = contextService.getCurrentUser();
 
 		if (user == null) {
@@ -59,17 +74,16 @@ public class TaskService {
 					.orElseThrow(() -> new EntityNotFoundException("Parent task not found"));
 			task.setParentTask(parentTask);
 		}
+		Task saved = taskRepository.save(task);
 		if (user.isGoogle()) {
-			String calendarEvent = googleCalendarService.createCalendarEvent(user, task);
-			task.setGoogleEventId(calendarEvent);
-
+			calendarOutboxService.enqueue(CalendarSyncOperation.CREATE, user, saved);
 		}
 
-		return toResponse(taskRepository.save(task));
+		return publish(user, TaskEventType.CREATED, toResponse(saved));
 	}
 
 	@Transactional
-	public TaskResponseDto updateTask(Long taskId, TaskRequestDto dto) throws IOException, GeneralSecurityException {
+	public TaskResponseDto updateTask(Long taskId, TaskRequestDto dto) {
 		User user = contextService.getCurrentUser();
 
 		if (user == null) {
@@ -83,19 +97,148 @@ public class TaskService {
 
 		Task task = taskRepository.findByIdAndUser(taskId, user)
 				.orElseThrow(() -> new BadRequestException("Task not found"));
+		checkVersion(task, dto.getVersion());
 
+		Set<CalendarEventField> changedFields = calendarChanges(task, dto);
 		task.setTitle(dto.getTitle());
 		task.setDescription(dto.getDescription());
 		task.setDueDate(dto.getDueDate());
 		task.setWeight(dto.getWeight());
 		if (user.isGoogle()) {
-		   googleCalendarService.updateCalendarEvent(user, task);
+			calendarOutboxService.enqueueUpdate(user, task, changedFields);
+		}
+		// Flush so the response carries the bumped version
+		return publish(user, TaskEventType.UPDATED, toResponse(taskRepository.saveAndFlush(task)));
+	}
+
+	/**
+	 * Apply a JSON Merge Patch (RFC 7396) to a task. Only the fields present in the patch are touched, the
+	 * UPDATE only writes columns whose value actually changed, and the calendar update and subtask completion
+	 * only run when their fields changed. A patch that changes nothing writes and publishes nothing.
+	 *
+	 * @param taskId the task to patch
+	 * @param patch an object with any of title, description, dueDate, weight, completed, and optionally
+	 *              the version the patch is based on
+	 * @return the patched task
+	 */
+	@Transactional
+	public TaskResponseDto patchTask(Long taskId, JsonNode patch) {
+		if (patch == null || !patch.isObject()) {
+			throw new BadRequestException("A merge patch must be a JSON object");
+		}
+		patch.fieldNames().forEachRemaining(field -> {
+			if (!PATCHABLE_FIELDS.contains(field)) {
+				throw new BadRequestException("Field cannot be patched: " + field);
+			}
+		});
+		User user = contextService.getCurrentUser();
+		Task task = taskRepository.findByIdAndUser(taskId, user)
+				.orElseThrow(() -> new BadRequestException("Task not found"));
+		if (patch.has("version")) {
+			checkVersion(task, patchedLong(patch, "version"));
+		}
+
+		TaskRequestDto merged = new TaskRequestDto();
+		merged.setTitle(patch.has("title") ? patchedText(patch, "title") : task.getTitle());
+		merged.setDescription(patch.has("description") ? patchedText(patch, "description") : task.getDescription());
+		merged.setDueDate(patch.has("dueDate") ? patchedDate(patch, "dueDate") : task.getDueDate());
+		merged.setWeight(patch.has("weight") ? (int) patchedLong(patch, "weight") : task.getWeight());
+
+		Set<CalendarEventField> changedFields = calendarChanges(task, merged);
+		boolean changed = !changedFields.isEmpty() || merged.getWeight() != task.getWeight();
+		// Setting an unchanged value leaves the column out of the dynamic UPDATE
+		task.setTitle(merged.getTitle());
+		task.setDescription(merged.getDescription());
+		task.setDueDate(merged.getDueDate());
+		task.setWeight(merged.getWeight());
+		if (patch.has("completed")) {
+			boolean completed = patchedBoolean(patch, "completed");
+			if (completed != task.isCompleted()) {
+				task.setCompleted(completed);
+				updateSubtasksCompletion(task, completed);
+				changed = true;
+			}
+		}
+		// Open tabs already show this state
+		if (!changed) {
+			return toResponse(task);
+		}
+		if (user.isGoogle()) {
+			calendarOutboxService.enqueueUpdate(user, task, changedFields);
+		}
+		return publish(user, TaskEventType.UPDATED, toResponse(taskRepository.saveAndFlush(task)));
+	}
+
+	// Delivered to the user's event streams once the transaction commits
+	private TaskResponseDto publish(User user, TaskEventType type, TaskResponseDto task) {
+		eventPublisher.publishEvent(new TaskChangedEvent(user.getId(), new TaskEventDto(type, task.getId(), task)));
+		return task;
+	}
+
+	// Every patchable column is NOT NULL, so the merge patch "remove" (an explicit null) is rejected
+	private static JsonNode patchedValue(JsonNode patch, String field) {
+		JsonNode value = patch.get(field);
+		if (value.isNull()) {
+			throw new BadRequestException(field + " cannot be removed");
+		}
+		return value;
+	}
 
+	private static String patchedText(JsonNode patch, String field) {
+		JsonNode value = patchedValue(patch, field);
+		if (!value.isTextual()) {
+			throw new BadRequestException(field + " must be a string");
 		}
-		return toResponse(taskRepository.save(task));
+		return value.textValue();
 	}
 
-	private TaskResponseDto toResponse(Task task) {
+	private static LocalDate patchedDate(JsonNode patch, String field) {
+		try {
+			return LocalDate.parse(patchedText(patch, field));
+		} catch (DateTimeParseException e) {
+			throw new BadRequestException(field + " must be a date like 2025-01-31");
+		}
+	}
+
+	private static long patchedLong(JsonNode patch, String field) {
+		JsonNode value = patchedValue(patch, field);
+		if (!value.isIntegralNumber() || !value.canConvertToLong()) {
+			throw new BadRequestException(field + " must be a whole number");
+		}
+		return value.longValue();
+	}
+
+	private static boolean patchedBoolean(JsonNode patch, String field) {
+		JsonNode value = patchedValue(patch, field);
+		if (!value.isBoolean()) {
+			throw new BadRequestException(field + " must be true or false");
+		}
+		return value.booleanValue();
+	}
+
+	// The @Version check at flush catches concurrent writers; this catches edits based on an old read
+	private void checkVersion(Task task, Long expectedVersion) {
+		if (expectedVersion != null && expectedVersion != task.getVersion()) {
+			throw new ConflictException("Task was modified by another update", toResponse(task));
+		}
+	}
+
+	// Only title, description and due date are visible on the calendar event
+	private Set<CalendarEventField> calendarChanges(Task task, TaskRequestDto dto) {
+		Set<CalendarEventField> changed = EnumSet.noneOf(CalendarEventField.class);
+		if (!Objects.equals(task.getTitle(), dto.getTitle())) {
+			changed.add(CalendarEventField.TITLE);
+		}
+		if (!Objects.equals(task.getDescription(), dto.getDescription())) {
+			changed.add(CalendarEventField.DESCRIPTION);
+		}
+		if (!Objects.equals(task.getDueDate(), dto.getDueDate())) {
+			changed.add(CalendarEventField.DUE_DATE);
+		}
+		return changed;
+	}
+
+	static TaskResponseDto toResponse(Task task) {
 		TaskResponseDto dto = new TaskResponseDto();
 		dto.setId(task.getId());
 		dto.setTitle(task.getTitle());
@@ -105,11 +248,12 @@ public class TaskService {
 		dto.setCompleted(task.isCompleted());
 		dto.setPriority(task.getPriorityScore());
 		dto.setParentTaskId(task.getParentTask() != null ? task.getParentTask().getId() : null);
-		dto.setSubtasks(task.getSubtasks().stream().map(this::toResponse).collect(Collectors.toList()));
+		dto.setVersion(task.getVersion());
+		dto.setSubtasks(task.getSubtasks().stream().map(TaskService::toResponse).collect(Collectors.toList()));
 		return dto;
 	}
 	
-	@Transactional
+	@Transactional(readOnly = true)
 	public List<TaskResponseDto> getTask() {
 		
 		User user = contextService.getCurrentUser();
@@ -120,20 +264,31 @@ public class TaskService {
 
 		List<Task> task = taskRepository.findByUser( user);
 		
-		List<TaskResponseDto> list = task.stream().map(this::toResponse).toList();
+		List<TaskResponseDto> list = task.stream().map(TaskService::toResponse).toList();
 		return list;
 	}
 	@Transactional
-    public void deleteTask(Long taskId) throws IOException, GeneralSecurityException {
+    public void deleteTask(Long taskId) {
         User user = contextService.getCurrentUser();
         Task task = taskRepository.findByIdAndUser(taskId, user)
 				.orElseThrow(() -> new BadRequestException("Task not found"));
         if (user.isGoogle()) {
-			googleCalendarService.deleteCalendarEvent(user, task);
-
+			enqueueCalendarDeletes(user, task);
 		}
         taskRepository.delete(task);
+        eventPublisher.publishEvent(new TaskChangedEvent(user.getId(),
+				new TaskEventDto(TaskEventType.DELETED, taskId, null)));
     }
+
+	// Subtasks are removed by cascade, so their events are queued for deletion too
+	private void enqueueCalendarDeletes(User user, Task task) {
+		if (task.getGoogleEventId() != null) {
+			calendarOutboxService.enqueue(CalendarSyncOperation.DELETE, user, task);
+		}
+		for (Task subtask : task.getSubtasks()) {
+			enqueueCalendarDeletes(user, subtask);
+		}
+	}
 	
 	@Transactional
     public void updateTaskOrder(Long sourceId, Long destinationId) {
@@ -148,19 +303,21 @@ public class TaskService {
         // Implementation for reordering would depend on your frontend requirements
         sourceTask.setPriorityScore(destinationPriorityScore);
         destinationTask.setPriorityScore(sourcePriorityScore);
-        taskRepository.save(sourceTask);
-        taskRepository.save(destinationTask);
+        // Flushed so the events carry the bumped versions
+        publish(user, TaskEventType.REORDERED, toResponse(taskRepository.saveAndFlush(sourceTask)));
+        publish(user, TaskEventType.REORDERED, toResponse(taskRepository.saveAndFlush(destinationTask)));
     }
 	
 	@Transactional
-    public void markCompleteTask(Long taskId,boolean completed) {
+    public void markCompleteTask(Long taskId, boolean completed, Long version) {
         User user = contextService.getCurrentUser();
     	Task task = taskRepository.findByIdAndUser(taskId,user)
 				.orElseThrow(() -> new BadRequestException("Task not found"));
+    	checkVersion(task, version);
     	task.setCompleted(completed);
     	updateSubtasksCompletion(task, completed);
         
-        taskRepository.save(task);
+        publish(user, TaskEventType.COMPLETED, toResponse(taskRepository.saveAndFlush(task)));
     }
     
     private void updateSubtasksCompletion(Task parentTask, boolean completed) {
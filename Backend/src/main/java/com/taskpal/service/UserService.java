@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.taskpal.dto.UserResponse;
 import com.taskpal.model.User;
@@ -31,6 +32,7 @@ public class UserService {
      * @return the user response
      * @throws UsernameNotFoundException if the user is not found
      */
+    @Transactional(readOnly = true)
     public UserResponse getCurrentUser(String email) {
         logger.info("Fetching user with email: {}", email);
         User user = userRepository.findByEmail(email)
@@ -44,6 +46,7 @@ public class UserService {
      *
      * @return the list of user responses
      */
+    @Transactional(readOnly = true)
     public List<UserResponse> getAllUsers() {
         logger.info("Fetching all users");
         return userRepository.findAll().stream()
@@ -58,6 +61,7 @@ public class UserService {
      * @return the user response
      * @throws UsernameNotFoundException if the user is not found
      */
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         logger.info("Fetching user with ID: {}", id);
         User user = userRepository.findById(id)
@@ -0,0 +1,38 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update) before Flyway was introduced.
+-- Databases created that way are baselined at this version and start at V2.
+
+CREATE TABLE users (
+    id                            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name                          varchar(255) NOT NULL,
+    email                         varchar(255) NOT NULL,
+    mobile_number                 varchar(255) NOT NULL,
+    password                      varchar(255) NOT NULL,
+    role                          varchar(255) NOT NULL CHECK (role IN ('ROLE_USER', 'ROLE_ADMIN')),
+    email_verified                boolean      NOT NULL,
+    google                        boolean      NOT NULL DEFAULT false,
+    verification_token            varchar(255),
+    verification_token_expiry     timestamp(6),
+    created_at                    timestamp(6) NOT NULL,
+    updated_at                    timestamp(6) NOT NULL,
+    google_calendar_access_token  varchar(255),
+    google_calendar_refresh_token varchar(255),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT uk_users_verification_token UNIQUE (verification_token)
+);
+
+CREATE TABLE task (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title           varchar(255) NOT NULL,
+    description     varchar(255) NOT NULL,
+    due_date        date         NOT NULL,
+    weight          integer      NOT NULL,
+    priority_score  integer      NOT NULL,
+    completed       boolean      NOT NULL DEFAULT false,
+    parent_task_id  bigint,
+    user_id         bigint,
+    google_event_id varchar(255),
+    created_at      timestamp(6) NOT NULL,
+    updated_at      timestamp(6) NOT NULL,
+    CONSTRAINT fk_task_parent_task FOREIGN KEY (parent_task_id) REFERENCES task (id),
+    CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
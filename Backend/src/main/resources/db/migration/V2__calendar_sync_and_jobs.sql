@@ -0,0 +1,47 @@
+-- Columns and tables added for calendar sync, the email outbox and job coordination.
+-- IF NOT EXISTS keeps this safe on databases that ddl-auto=update already extended with some of them.
+
+-- GoogleTokenRefreshJob, refresh ahead of expiry
+ALTER TABLE users ADD COLUMN IF NOT EXISTS google_calendar_token_expiry timestamp(6);
+
+-- CalendarPullService and CalendarPullScheduler, incremental pulls
+ALTER TABLE users ADD COLUMN IF NOT EXISTS google_calendar_sync_token varchar(512);
+ALTER TABLE users ADD COLUMN IF NOT EXISTS google_calendar_next_pull_at timestamp(6);
+
+-- TaskDigestJob, at most one digest per user and day
+ALTER TABLE users ADD COLUMN IF NOT EXISTS last_digest_date date;
+
+CREATE TABLE IF NOT EXISTS calendar_outbox (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    operation       varchar(255)  NOT NULL CHECK (operation IN ('CREATE', 'UPDATE', 'DELETE')),
+    task_id         bigint        NOT NULL,
+    user_id         bigint        NOT NULL,
+    google_event_id varchar(255),
+    changed_fields  varchar(255),
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    locked_until    timestamp(6),
+    failed          boolean       NOT NULL DEFAULT false,
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id              bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    recipient       varchar(255)  NOT NULL,
+    subject         varchar(255)  NOT NULL,
+    body            text          NOT NULL,
+    attempts        integer       NOT NULL,
+    next_attempt_at timestamp(6)  NOT NULL,
+    locked_until    timestamp(6),
+    failed          boolean       NOT NULL DEFAULT false,
+    last_error      varchar(1000),
+    created_at      timestamp(6)  NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS job_lease (
+    name         varchar(100) PRIMARY KEY,
+    owner        varchar(200) NOT NULL,
+    lease_until  timestamp(6) NOT NULL,
+    completed_at timestamp(6)
+);
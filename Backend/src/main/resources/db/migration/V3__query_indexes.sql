@@ -0,0 +1,48 @@
+-- One index per repository and job query; each comment names the queries it serves.
+-- Postgres does not index foreign keys by itself, so task.user_id and task.parent_task_id are covered here.
+-- IF NOT EXISTS keeps this safe on baselined databases that already have some of these.
+
+-- TaskRepository.findByUser, findByIdAndUser (after the PK), findMaxPriorityScoreByUserId (index-only)
+CREATE INDEX IF NOT EXISTS idx_task_user_priority ON task (user_id, priority_score);
+
+-- TaskRepository.findByParentTaskAndUser and loading a task's subtasks on delete
+CREATE INDEX IF NOT EXISTS idx_task_parent ON task (parent_task_id, user_id) WHERE parent_task_id IS NOT NULL;
+
+-- TaskRepository.findByUserIdAndGoogleEventIdIsNullOrderById (calendar backfill)
+CREATE INDEX IF NOT EXISTS idx_task_user_unsynced ON task (user_id, id) WHERE google_event_id IS NULL;
+
+-- TaskRepository.findByUserIdAndGoogleEventIdIn (calendar pull); replaces the single-column index
+DROP INDEX IF EXISTS idx_task_google_event_id;
+CREATE INDEX IF NOT EXISTS idx_task_user_event ON task (user_id, google_event_id) WHERE google_event_id IS NOT NULL;
+
+-- UserRepository.findActiveWithTokenExpiringBefore, the recent-activity EXISTS
+CREATE INDEX IF NOT EXISTS idx_task_user_updated ON task (user_id, updated_at);
+
+-- TaskDigestJob, open tasks per owner in due-date order
+CREATE INDEX IF NOT EXISTS idx_task_open_due ON task (user_id, due_date, id) WHERE completed = false;
+
+-- UserRepository.findByEmail and findByVerificationToken use the unique constraints from V1
+
+-- UserRepository.findActiveWithTokenExpiringBefore, Google-linked users in ID order
+CREATE INDEX IF NOT EXISTS idx_users_token_refresh ON users (id)
+    WHERE google = true AND google_calendar_refresh_token IS NOT NULL;
+
+-- UserRepository.findDueForCalendarPull
+CREATE INDEX IF NOT EXISTS idx_users_calendar_pull ON users (google_calendar_next_pull_at NULLS FIRST)
+    WHERE google = true AND google_calendar_access_token IS NOT NULL;
+
+-- RegistrationCleanupJob, unverified signups by token expiry
+CREATE INDEX IF NOT EXISTS idx_users_unverified_expiry ON users (verification_token_expiry) WHERE email_verified = false;
+
+-- CalendarOutboxRepository.lockDueEvents and countByFailedFalse, pending rows in ID order
+CREATE INDEX IF NOT EXISTS idx_calendar_outbox_pending ON calendar_outbox (id) WHERE failed = false;
+
+-- CalendarOutboxRepository.lockDueEvents (older-row check), findFirstByTaskIdAndFailedFalseOrderByIdDesc,
+-- findPendingTaskIds
+CREATE INDEX IF NOT EXISTS idx_calendar_outbox_task ON calendar_outbox (task_id, id) WHERE failed = false;
+
+-- EmailOutboxRepository.lockDueMessages and countByFailedFalse
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pending ON email_outbox (id) WHERE failed = false;
+
+-- EmailOutboxRepository.countByFailedTrue
+CREATE INDEX IF NOT EXISTS idx_email_outbox_failed ON email_outbox (id) WHERE failed = true;
@@ -0,0 +1,2 @@
+-- Optimistic locking version for concurrent task edits
+ALTER TABLE task ADD COLUMN version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,81 @@
+package com.taskpal.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskpal.dto.ApiResponse;
+import com.taskpal.dto.TaskResponseDto;
+
+/**
+ * JMH benchmark of writing API responses with Jackson, configured like Spring Boot's mapper: a small
+ * acknowledgement and a task list of 50 tasks with 3 subtasks each.
+ * <p>
+ * Not part of the default build; run with {@code mvn test -Pjmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+
+	private ObjectMapper objectMapper;
+	private ApiResponse<Void> acknowledgement;
+	private ApiResponse<List<TaskResponseDto>> taskList;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		acknowledgement = new ApiResponse<>(true, "Task Deleted SucessFully ");
+		List<TaskResponseDto> tasks = new ArrayList<>();
+		for (long i = 0; i < 50; i++) {
+			TaskResponseDto task = task(i);
+			for (long j = 0; j < 3; j++) {
+				TaskResponseDto subtask = task(1000 + i * 3 + j);
+				subtask.setParentTaskId(i);
+				task.getSubtasks().add(subtask);
+			}
+			tasks.add(task);
+		}
+		taskList = ApiResponse.success(tasks, "Updated Task successfully");
+	}
+
+	@Benchmark
+	public byte[] acknowledgement() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(acknowledgement);
+	}
+
+	@Benchmark
+	public byte[] taskList() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(taskList);
+	}
+
+	private static TaskResponseDto task(long id) {
+		TaskResponseDto task = new TaskResponseDto();
+		task.setId(id);
+		task.setTitle("Task " + id);
+		task.setDescription("Description of task " + id);
+		task.setDueDate(LocalDate.of(2025, 1, 1).plusDays(id % 60));
+		task.setWeight((int) (id % 5) + 1);
+		task.setPriority((int) id);
+		task.setSubtasks(new ArrayList<>());
+		return task;
+	}
+}
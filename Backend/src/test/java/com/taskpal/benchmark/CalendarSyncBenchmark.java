@@ -0,0 +1,274 @@
+package com.taskpal.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.api.client.http.HttpTransport;
+import com.taskpal.config.GoogleApiConfig;
+import com.taskpal.dto.TaskRequestDto;
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.model.CalendarOutboxEvent;
+import com.taskpal.model.CalendarSyncOperation;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.service.CalendarCircuitBreaker;
+import com.taskpal.service.CalendarOutboxService;
+import com.taskpal.service.CalendarSyncWorker;
+import com.taskpal.service.GoogleCalendarClientCache;
+import com.taskpal.service.GoogleCalendarService;
+import com.taskpal.service.TaskService;
+import com.taskpal.service.contextService;
+import com.taskpal.support.FakeGoogleCalendarServer;
+import com.taskpal.support.FakeGoogleCalendarServer.Conditions;
+import com.taskpal.support.InMemoryRepositories;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Load benchmark for task writes and calendar sync against a fake Google under different conditions.
+ * <p>
+ * Calendar-linked users create and edit tasks concurrently while the outbox worker drains to the fake
+ * server. Reports task-write latency percentiles, the latency of a direct Calendar insert for
+ * comparison, and how many outbox operations reach Google within a fixed window. Repositories are in memory, so the numbers isolate the
+ * application and Google-facing code from the database.
+ * <p>
+ * Excluded from the default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class CalendarSyncBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(CalendarSyncBenchmark.class);
+
+	private static final int USERS = 20;
+	private static final int TASKS_PER_USER = 25;
+	private static final int DIRECT_SAMPLES = 40;
+	private static final Duration DRAIN_WINDOW = Duration.ofMinutes(2);
+
+	enum Scenario {
+		HEALTHY(new Conditions(Duration.ofMillis(20), Duration.ofMillis(10), 0, 0)),
+		SLOW(new Conditions(Duration.ofMillis(300), Duration.ofMillis(200), 0, 0)),
+		FLAKY(new Conditions(Duration.ofMillis(20), Duration.ofMillis(10), 0.2, 0)),
+		THROTTLED(new Conditions(Duration.ofMillis(20), Duration.ofMillis(10), 0, 300));
+
+		private final Conditions conditions;
+
+		Scenario(Conditions conditions) {
+			this.conditions = conditions;
+		}
+	}
+
+	private static FakeGoogleCalendarServer server;
+	private static HttpTransport httpTransport;
+
+	@BeforeAll
+	static void startServer() throws IOException {
+		server = new FakeGoogleCalendarServer();
+		GoogleApiConfig config = new GoogleApiConfig();
+		ReflectionTestUtils.setField(config, "maxConnections", 50);
+		ReflectionTestUtils.setField(config, "maxConnectionsPerRoute", 50);
+		ReflectionTestUtils.setField(config, "connectionTtlSeconds", 300L);
+		httpTransport = config.googleHttpTransport();
+	}
+
+	@AfterAll
+	static void stopServer() throws IOException {
+		httpTransport.shutdown();
+		server.close();
+	}
+
+	@ParameterizedTest
+	@EnumSource(Scenario.class)
+	void taskWritesAndSync(Scenario scenario) throws Exception {
+		server.setConditions(scenario.conditions);
+		Pipeline pipeline = new Pipeline();
+		List<User> users = new ArrayList<>();
+		for (long id = 1; id <= USERS; id++) {
+			String accessToken = scenario.name() + "-access-" + id;
+			String refreshToken = scenario.name() + "-refresh-" + id;
+			server.calendar(accessToken, refreshToken);
+			users.add(pipeline.repositories.addUser(User.builder().id(id).google(true)
+					.googleCalendarAccessToken(accessToken).googleCalendarRefreshToken(refreshToken).build()));
+		}
+		server.getStats().reset();
+
+		long[] directLatencies = directInserts(pipeline, users.get(0));
+
+		AtomicBoolean writing = new AtomicBoolean(true);
+		ExecutorService poller = Executors.newSingleThreadExecutor();
+		Future<?> polling = poller.submit(() -> {
+			long deadline = System.nanoTime() + DRAIN_WINDOW.toNanos();
+			while (writing.get() || pipeline.repositories.outboxRepository().countByFailedFalse() > 0
+					&& System.nanoTime() < deadline) {
+				pipeline.worker.poll();
+				sleep(50);
+			}
+		});
+
+		long started = System.nanoTime();
+		long[] writeLatencies = concurrentWrites(pipeline, users);
+		writing.set(false);
+		polling.get();
+		long elapsedNanos = System.nanoTime() - started;
+		poller.shutdown();
+		pipeline.worker.shutdown();
+
+		List<CalendarOutboxEvent> remaining = List.copyOf(pipeline.repositories.getOutbox());
+		long parked = remaining.stream().filter(CalendarOutboxEvent::isFailed).count();
+		long synced = pipeline.repositories.getOutboxRowsCreated() - remaining.size();
+		logger.info(String.format("%n%-9s task write p50 %6.2f ms  p99 %6.2f ms  max %7.2f ms"
+				+ " | direct insert p50 %7.2f ms  p99 %7.2f ms"
+				+ " | synced %4d ops in %6.2f s = %6.1f ops/s, %d pending, %d parked"
+				+ " | google requests %d, 429 %d, 5xx %d",
+				scenario, millis(percentile(writeLatencies, 50)), millis(percentile(writeLatencies, 99)),
+				millis(percentile(writeLatencies, 100)), millis(percentile(directLatencies, 50)),
+				millis(percentile(directLatencies, 99)), synced, elapsedNanos / 1e9, synced / (elapsedNanos / 1e9),
+				remaining.size() - parked, parked, server.getStats().getRequests(),
+				server.getStats().getThrottled(), server.getStats().getErrors()));
+
+		// Every task is either linked to exactly one event or still has its create in the outbox
+		long linked = pipeline.repositories.getTasks().stream().filter(task -> task.getGoogleEventId() != null).count();
+		long unsyncedCreates = remaining.stream()
+				.filter(event -> event.getOperation() == CalendarSyncOperation.CREATE)
+				.count();
+		assertEquals(USERS * TASKS_PER_USER, linked + unsyncedCreates);
+		assertTrue(synced > 0, "Nothing was synced");
+	}
+
+	// What the request path paid before the outbox: one Calendar insert per task write
+	private long[] directInserts(Pipeline pipeline, User user) {
+		long[] latencies = new long[DIRECT_SAMPLES];
+		Task task = Task.builder().title("Direct").description("").dueDate(LocalDate.now().plusDays(1)).build();
+		for (int i = 0; i < DIRECT_SAMPLES; i++) {
+			long start = System.nanoTime();
+			try {
+				pipeline.googleCalendarService.createCalendarEvent(user, task);
+			} catch (Exception e) {
+				// Failed calls still count towards request latency
+			}
+			latencies[i] = System.nanoTime() - start;
+		}
+		return latencies;
+	}
+
+	private long[] concurrentWrites(Pipeline pipeline, List<User> users) throws Exception {
+		ExecutorService writers = Executors.newFixedThreadPool(USERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<long[]>> results = new ArrayList<>();
+		for (User user : users) {
+			results.add(writers.submit(() -> {
+				start.await();
+				pipeline.currentUser.set(user);
+				long[] latencies = new long[TASKS_PER_USER * 2];
+				for (int i = 0; i < TASKS_PER_USER; i++) {
+					TaskRequestDto dto = new TaskRequestDto();
+					dto.setTitle("Task " + i);
+					dto.setDescription("Benchmark task");
+					dto.setDueDate(LocalDate.now().plusDays(1 + i % 7));
+					dto.setWeight(1 + i % 5);
+
+					long created = System.nanoTime();
+					TaskResponseDto task = pipeline.taskService.addTask(dto);
+					latencies[2 * i] = System.nanoTime() - created;
+
+					dto.setTitle("Task " + i + " (edited)");
+					long updated = System.nanoTime();
+					pipeline.taskService.updateTask(task.getId(), dto);
+					latencies[2 * i + 1] = System.nanoTime() - updated;
+				}
+				return latencies;
+			}));
+		}
+		start.countDown();
+		List<long[]> all = new ArrayList<>();
+		for (Future<long[]> result : results) {
+			all.add(result.get());
+		}
+		writers.shutdown();
+		return all.stream().flatMapToLong(Arrays::stream).toArray();
+	}
+
+	private static long percentile(long[] values, int percentile) {
+		long[] sorted = values.clone();
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(0, index)];
+	}
+
+	private static double millis(long nanos) {
+		return nanos / 1_000_000.0;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The production task and calendar sync services wired to in-memory repositories and the fake server.
+	 * Breaker and pool settings match application.properties; retry backoff, per-user quota backoff and
+	 * debounce are shortened and the worker quota raised, so a run measures Google-side conditions rather
+	 * than our own pacing.
+	 */
+	private static class Pipeline {
+
+		private final InMemoryRepositories repositories = new InMemoryRepositories();
+		private final ThreadLocal<User> currentUser = new ThreadLocal<>();
+		private final GoogleCalendarService googleCalendarService = new GoogleCalendarService();
+		private final TaskService taskService;
+		private final CalendarSyncWorker worker;
+
+		private Pipeline() {
+			GoogleCalendarClientCache clientCache = new GoogleCalendarClientCache(httpTransport,
+					repositories.userRepository(), "client", "secret", 10_000, Duration.ofMinutes(30), 3000, 5000,
+					server.getRootUrl(), server.getTokenUrl());
+			CalendarCircuitBreaker breaker = new CalendarCircuitBreaker(new SimpleMeterRegistry(), 8,
+					Duration.ofMillis(500), 20, 10, 0.5, Duration.ofSeconds(2), 3, Duration.ofMillis(500),
+					Duration.ofSeconds(10));
+			ReflectionTestUtils.setField(googleCalendarService, "userRepository", repositories.userRepository());
+			ReflectionTestUtils.setField(googleCalendarService, "httpTransport", httpTransport);
+			ReflectionTestUtils.setField(googleCalendarService, "calendarClientCache", clientCache);
+			ReflectionTestUtils.setField(googleCalendarService, "circuitBreaker", breaker);
+
+			CalendarOutboxService outboxService = new CalendarOutboxService(repositories.outboxRepository());
+			ReflectionTestUtils.setField(outboxService, "lease", Duration.ofMinutes(2));
+			ReflectionTestUtils.setField(outboxService, "maxAttempts", 10);
+			ReflectionTestUtils.setField(outboxService, "backoffInitial", Duration.ofMillis(500));
+			ReflectionTestUtils.setField(outboxService, "backoffMax", Duration.ofSeconds(10));
+			ReflectionTestUtils.setField(outboxService, "debounce", Duration.ofMillis(200));
+			ReflectionTestUtils.setField(outboxService, "debounceMaxDelay", Duration.ofSeconds(1));
+
+			contextService context = mock(contextService.class);
+			when(context.getCurrentUser()).thenAnswer(invocation -> currentUser.get());
+			taskService = new TaskService(repositories.taskRepository(), context, outboxService, event -> {
+			});
+			worker = new CalendarSyncWorker(outboxService, googleCalendarService, repositories.taskRepository(),
+					repositories.userRepository(), 4, 50, 6000);
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.taskpal.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.taskpal.service.EmailTemplate;
+import com.taskpal.service.EmailTemplates;
+
+/**
+ * JMH benchmark of rendering emails: the verification email, and a digest assembled from its section and
+ * task fragments the way {@code TaskDigestJob} does.
+ * <p>
+ * Not part of the default build; run with {@code mvn test -Pjmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateRenderingBenchmark {
+
+	private static final int TASKS_PER_SECTION = 10;
+
+	private EmailTemplates templates;
+	private LocalDate dueDate;
+
+	@Setup
+	public void setUp() throws IOException {
+		templates = new EmailTemplates();
+		dueDate = LocalDate.of(2025, 1, 31);
+	}
+
+	@Benchmark
+	public String verification() {
+		return templates.render("verification", Map.of("name", "Ann <Admin>",
+				"verificationUrl", "http://localhost:5173/auth/verify-email?token=0b6f9c1e&ref=mail"));
+	}
+
+	@Benchmark
+	public String digest() {
+		StringBuilder sections = new StringBuilder();
+		appendSection(sections, "Overdue");
+		appendSection(sections, "Due today");
+		return templates.render("digest", Map.of("name", "Ann", "sections", sections));
+	}
+
+	private void appendSection(StringBuilder out, String heading) {
+		StringBuilder rows = new StringBuilder();
+		EmailTemplate row = templates.get("digest-task");
+		for (int i = 0; i < TASKS_PER_SECTION; i++) {
+			row.render(Map.of("title", "Task & follow-up " + i, "dueDate", dueDate), rows);
+		}
+		templates.get("digest-section").render(Map.of("heading", heading, "count", TASKS_PER_SECTION, "tasks", rows),
+				out);
+	}
+}
@@ -0,0 +1,64 @@
+package com.taskpal.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.taskpal.model.User;
+import com.taskpal.security.JwtUtils;
+
+/**
+ * JMH benchmark of issuing and checking JWTs, paid on every sign-in and every authenticated request.
+ * <p>
+ * Not part of the default build; run with {@code mvn test -Pjmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+	private JwtUtils jwtUtils;
+	private User user;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtils = new JwtUtils();
+		ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+				"9a4f2c8d3b7a1e6f5d4c2b8a6e3f7d1c9a4f2c8d3b7a1e6f5d4c2b8a6e3f7d1c");
+		ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+		user = User.builder().email("ann@example.com").build();
+		token = jwtUtils.generateJwtTokenWithUser(user);
+	}
+
+	@Benchmark
+	public String generate() {
+		return jwtUtils.generateJwtTokenWithUser(user);
+	}
+
+	@Benchmark
+	public boolean validate() {
+		return jwtUtils.validateJwtToken(token);
+	}
+
+	/**
+	 * What {@code JwtAuthenticationFilter} does per request: validate, then parse again for the subject.
+	 */
+	@Benchmark
+	public String validateAndReadEmail() {
+		return jwtUtils.validateJwtToken(token) ? jwtUtils.getEmailFromJwtToken(token) : null;
+	}
+}
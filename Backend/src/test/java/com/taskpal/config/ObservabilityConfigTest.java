@@ -0,0 +1,54 @@
+package com.taskpal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+class ObservabilityConfigTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry.config().meterFilter(new ObservabilityConfig().observedTimerCompatibilityFilter());
+		observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+	}
+
+	@Test
+	void serviceTimersKeepTheirTimedTags() {
+		observe("taskpal.tasks", null);
+		assertThrows(IllegalStateException.class, () -> observe("taskpal.tasks", new IllegalStateException()));
+
+		assertEquals(1, meterRegistry.get("taskpal.tasks").tag("exception", "none").timer().count());
+		assertEquals(1, meterRegistry.get("taskpal.tasks").tag("exception", "IllegalStateException").timer().count());
+		assertNull(meterRegistry.find("taskpal.tasks").tagKeys("error").timer());
+		assertNull(meterRegistry.find("taskpal.tasks.active").longTaskTimer());
+	}
+
+	@Test
+	void emailSendTimerStaysUntagged() {
+		observe("taskpal.email.send", null);
+
+		Timer timer = meterRegistry.get("taskpal.email.send").timer();
+		assertEquals(0, timer.getId().getTags().size());
+		assertNull(meterRegistry.find("taskpal.email.send.active").longTaskTimer());
+	}
+
+	private void observe(String name, RuntimeException failure) {
+		Observation.createNotStarted(name, observationRegistry).observe(() -> {
+			if (failure != null) {
+				throw failure;
+			}
+		});
+	}
+}
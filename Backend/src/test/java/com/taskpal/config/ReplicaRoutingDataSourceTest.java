@@ -0,0 +1,164 @@
+package com.taskpal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+	private final DataSource primary = mock(DataSource.class);
+	private final DataSource replicaA = mock(DataSource.class);
+	private final DataSource replicaB = mock(DataSource.class);
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaAConnection = mock(Connection.class);
+	private final Connection replicaBConnection = mock(Connection.class);
+	private ReplicaRoutingDataSource router;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replicaA.getConnection()).thenReturn(replicaAConnection);
+		when(replicaB.getConnection()).thenReturn(replicaBConnection);
+		Map<String, DataSource> replicas = new LinkedHashMap<>();
+		replicas.put("a", replicaA);
+		replicas.put("b", replicaB);
+		router = new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1), Duration.ofSeconds(10));
+		signIn("ann@example.com");
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void readOnlyTransactionsRoundRobinOverReplicas() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertSame(replicaAConnection, router.getConnection());
+		assertSame(replicaBConnection, router.getConnection());
+		assertSame(replicaAConnection, router.getConnection());
+	}
+
+	@Test
+	void explicitCredentialsAreRoutedTheSameWay() throws SQLException {
+		Connection replicaWithCredentials = mock(Connection.class);
+		Connection primaryWithCredentials = mock(Connection.class);
+		when(replicaA.getConnection("report", "secret")).thenReturn(replicaWithCredentials);
+		when(primary.getConnection("report", "secret")).thenReturn(primaryWithCredentials);
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(replicaWithCredentials, router.getConnection("report", "secret"));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		assertSame(primaryWithCredentials, router.getConnection("report", "secret"));
+	}
+
+	@Test
+	void poolsWithoutPerCallCredentialsStayInRotation() throws SQLException {
+		when(replicaA.getConnection("report", "secret")).thenThrow(new SQLFeatureNotSupportedException());
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertThrows(SQLFeatureNotSupportedException.class, () -> router.getConnection("report", "secret"));
+
+		assertEquals(2, router.getHealthyReplicaCount());
+	}
+
+	@Test
+	void writesAndAnonymousReadsUseThePrimary() throws SQLException {
+		assertSame(primaryConnection, router.getConnection());
+
+		SecurityContextHolder.clearContext();
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(primaryConnection, router.getConnection());
+	}
+
+	@Test
+	void readsFollowTheUsersCommittedWriteToThePrimary() throws SQLException {
+		TransactionSynchronizationManager.initSynchronization();
+		assertSame(primaryConnection, router.getConnection());
+		TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+		TransactionSynchronizationManager.clearSynchronization();
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(primaryConnection, router.getConnection());
+
+		signIn("bob@example.com");
+		assertSame(replicaAConnection, router.getConnection());
+	}
+
+	@Test
+	void failingReplicaIsEjectedUntilHealthCheckPasses() throws SQLException {
+		when(replicaA.getConnection()).thenThrow(new SQLException("connection refused"));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		assertSame(replicaBConnection, router.getConnection());
+		assertEquals(1, router.getHealthyReplicaCount());
+		assertSame(replicaBConnection, router.getConnection());
+
+		when(replicaB.getConnection()).thenThrow(new SQLException("connection refused"));
+		assertSame(primaryConnection, router.getConnection());
+		assertEquals(0, router.getHealthyReplicaCount());
+	}
+
+	/**
+	 * Routes through two real Postgres instances, e.g. a primary on 5432 and a standby on 5433.
+	 */
+	@Test
+	@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_REPLICA_URL", matches = ".+")
+	void routesBetweenTwoPostgresInstances() {
+		String user = System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres");
+		String password = System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres");
+		DataSource primaryDb = new DriverManagerDataSource(System.getenv("TASKPAL_TEST_DB_URL"), user, password);
+		DataSource replicaDb = new DriverManagerDataSource(System.getenv("TASKPAL_TEST_REPLICA_URL"), user, password);
+		ReplicaRoutingDataSource realRouter = new ReplicaRoutingDataSource(primaryDb, Map.of("replica", replicaDb),
+				Duration.ZERO, Duration.ofSeconds(10));
+		realRouter.checkHealth();
+		assertEquals(1, realRouter.getHealthyReplicaCount());
+
+		DataSource dataSource = new LazyConnectionDataSourceProxy(realRouter);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		String sql = "SELECT current_setting('port') || ':' || pg_is_in_recovery()";
+
+		String written = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql, String.class));
+		transactionTemplate.setReadOnly(true);
+		String read = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql, String.class));
+
+		assertEquals(new JdbcTemplate(primaryDb).queryForObject(sql, String.class), written);
+		assertEquals(new JdbcTemplate(replicaDb).queryForObject(sql, String.class), read);
+	}
+
+	private static void signIn(String email) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(email, null, AuthorityUtils.NO_AUTHORITIES));
+	}
+}
@@ -0,0 +1,110 @@
+package com.taskpal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskpal.service.SlowQueryLog;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+class SqlStatementListenerTest {
+
+	private final DataSource dataSource = mock(DataSource.class);
+	private final SqlMonitorProperties properties = new SqlMonitorProperties();
+	private SlowQueryLog slowQueryLog;
+
+	@BeforeEach
+	void setUp() {
+		properties.setSlowQueryCapacity(2);
+		slowQueryLog = new SlowQueryLog(properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SqlStatementListener.end();
+		slowQueryLog.shutdown();
+	}
+
+	@Test
+	void countsStatementsOnlyWithinARequest() {
+		properties.setSlowThreshold(Duration.ofMinutes(1));
+		SqlStatementListener listener = new SqlStatementListener(dataSource, slowQueryLog, properties,
+				ObservationRegistry.NOOP);
+
+		execute(listener, "select 1");
+		SqlStatementListener.begin();
+		execute(listener, "select 2");
+		execute(listener, "select 3");
+		SqlStatementListener.Stats stats = SqlStatementListener.end();
+
+		assertEquals(2, stats.getStatements());
+		assertNull(SqlStatementListener.end());
+		assertEquals(List.of(), slowQueryLog.getEntries());
+		verifyNoInteractions(dataSource);
+	}
+
+	@Test
+	void slowStatementsAreExplainedWithTheirParametersAndTheRingIsBounded() throws Exception {
+		properties.setSlowThreshold(Duration.ZERO);
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true, false);
+		when(resultSet.getString(1)).thenReturn("Index Scan using task_pkey on task");
+		SqlStatementListener listener = new SqlStatementListener(dataSource, slowQueryLog, properties,
+				ObservationRegistry.NOOP);
+
+		ParameterSetOperation parameter = new ParameterSetOperation(
+				PreparedStatement.class.getMethod("setLong", int.class, long.class), new Object[] { 1, 42L });
+		execute(listener, "select * from task where id = ?", parameter);
+		waitForPlan();
+
+		verify(connection).prepareStatement("EXPLAIN select * from task where id = ?");
+		verify(statement).setLong(1, 42L);
+		assertEquals("Index Scan using task_pkey on task", slowQueryLog.getEntries().get(0).plan());
+
+		execute(listener, "begin");
+		execute(listener, "commit");
+		assertEquals(List.of("commit", "begin"),
+				slowQueryLog.getEntries().stream().map(SlowQueryLog.SlowQuery::sql).toList());
+	}
+
+	private void waitForPlan() throws InterruptedException {
+		for (int i = 0; i < 200 && slowQueryLog.getEntries().isEmpty(); i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static void execute(SqlStatementListener listener, String sql, ParameterSetOperation... parameters) {
+		QueryInfo query = new QueryInfo(sql);
+		if (parameters.length > 0) {
+			query.getParametersList().add(List.of(parameters));
+		}
+		ExecutionInfo execution = new ExecutionInfo();
+		listener.beforeQuery(execution, List.of(query));
+		listener.afterQuery(execution, List.of(query));
+	}
+}
@@ -0,0 +1,115 @@
+package com.taskpal.loadtest;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.taskpal.support.FakeGoogleCalendarServer;
+import com.taskpal.support.FakeGoogleCalendarServer.FakeCalendar;
+
+/**
+ * Writes a synthetic dataset straight over JDBC in batches: verified users sharing one password, every
+ * {@code 1 / googleShare}-th of them linked to a calendar on the fake Google server, each with flat tasks,
+ * wide trees and deep trees. Ids are assigned here so parents can be referenced before the database sees
+ * them; the identity sequences are moved past them afterwards.
+ */
+final class DatasetSeeder {
+
+	static final String PASSWORD = "load-test-password";
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * A seeded user and the ids of all their tasks, parents first.
+	 */
+	record SeededUser(long id, String email, boolean google, List<Long> taskIds) {
+	}
+
+	DatasetSeeder(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	List<SeededUser> seed(LoadProfile profile, String passwordHash, FakeGoogleCalendarServer google) {
+		LocalDateTime now = LocalDateTime.now();
+		int googleEvery = profile.googleShare() > 0 ? (int) Math.round(1 / profile.googleShare()) : 0;
+		List<SeededUser> users = new ArrayList<>(profile.users());
+		List<Object[]> userRows = new ArrayList<>();
+		List<Object[]> taskRows = new ArrayList<>();
+		long taskId = 0;
+
+		for (int i = 1; i <= profile.users(); i++) {
+			boolean linked = googleEvery > 0 && i % googleEvery == 0;
+			String email = "load" + i + "@example.com";
+			FakeCalendar calendar = linked ? google.calendar("load-access-" + i, "load-refresh-" + i) : null;
+			userRows.add(new Object[] { (long) i, "Load User " + i, email, "5550100", passwordHash, linked,
+					linked ? "load-access-" + i : null, linked ? "load-refresh-" + i : null,
+					linked ? Timestamp.valueOf(now.plusHours(1)) : null,
+					// Spread the incremental pulls over five minutes instead of firing them all at once
+					linked ? Timestamp.valueOf(now.plusSeconds(i % 300)) : null, Timestamp.valueOf(now),
+					Timestamp.valueOf(now) });
+
+			List<Long> taskIds = new ArrayList<>(profile.tasksPerUser());
+			for (int t = 0; t < profile.flatTasks(); t++) {
+				taskRows.add(task(++taskId, null, i, "Task " + t, calendar, now));
+				taskIds.add(taskId);
+			}
+			for (int w = 0; w < profile.wideTrees(); w++) {
+				long parentId = ++taskId;
+				taskRows.add(task(parentId, null, i, "Project " + w, calendar, now));
+				taskIds.add(parentId);
+				for (int c = 0; c < profile.wideTreeWidth(); c++) {
+					taskRows.add(task(++taskId, parentId, i, "Project " + w + " step " + c, calendar, now));
+					taskIds.add(taskId);
+				}
+			}
+			for (int d = 0; d < profile.deepTrees(); d++) {
+				Long parentId = null;
+				for (int level = 0; level < profile.deepTreeDepth(); level++) {
+					taskRows.add(task(++taskId, parentId, i, "Goal " + d + " level " + level, calendar, now));
+					taskIds.add(taskId);
+					parentId = taskId;
+				}
+			}
+			users.add(new SeededUser(i, email, linked, taskIds));
+		}
+
+		batch("""
+				INSERT INTO users (id, name, email, mobile_number, password, role, email_verified, google,
+				    google_calendar_access_token, google_calendar_refresh_token, google_calendar_token_expiry,
+				    google_calendar_next_pull_at, created_at, updated_at)
+				VALUES (?, ?, ?, ?, ?, 'ROLE_USER', true, ?, ?, ?, ?, ?, ?, ?)""", userRows);
+		batch("""
+				INSERT INTO task (id, parent_task_id, user_id, title, description, due_date, weight, priority_score,
+				    completed, google_event_id, created_at, updated_at)
+				VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", taskRows);
+		jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('users', 'id'), (SELECT max(id) FROM users))");
+		jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('task', 'id'), (SELECT max(id) FROM task))");
+		jdbcTemplate.execute("VACUUM ANALYZE users");
+		jdbcTemplate.execute("VACUUM ANALYZE task");
+		return users;
+	}
+
+	private static Object[] task(long id, Long parentId, long userId, String title, FakeCalendar calendar,
+			LocalDateTime now) {
+		int weight = 1 + (int) (id % 5);
+		LocalDate dueDate = now.toLocalDate().plusDays(id % 60 - 15);
+		String eventId = calendar == null ? null
+				: (String) calendar.insert(Map.of("summary", title, "description", "Seeded for load tests")).get("id");
+		return new Object[] { id, parentId, userId, title, "Seeded for load tests", Date.valueOf(dueDate), weight,
+				weight * 10, id % 10 < 3, eventId, Timestamp.valueOf(now), Timestamp.valueOf(now) };
+	}
+
+	private void batch(String sql, List<Object[]> rows) {
+		for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+			jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.taskpal.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Open-model load generator: requests start on a fixed schedule whatever happened to the earlier ones, as
+ * independent users would, so a struggling server builds a queue instead of quietly being offered less load.
+ * Latency is measured from each request's scheduled start rather than from when it was sent, so time spent
+ * waiting behind a stall is charged to the server instead of disappearing from the percentiles.
+ * <p>
+ * Each request runs on its own virtual thread. Beyond {@code maxInFlight} outstanding requests new ones are
+ * dropped and counted as errors, which bounds the client when the server stops answering.
+ */
+final class LoadDriver {
+
+	static final String TOTAL = "TOTAL";
+
+	private final HttpClient httpClient;
+	private final int maxInFlight;
+
+	/**
+	 * One request and the endpoint it is reported under; {@code onSuccess} gets the body of a 2xx response.
+	 */
+	record Call(String endpoint, HttpRequest request, Consumer<String> onSuccess) {
+
+		Call(String endpoint, HttpRequest request) {
+			this(endpoint, request, body -> {
+			});
+		}
+	}
+
+	LoadDriver(HttpClient httpClient, int maxInFlight) {
+		this.httpClient = httpClient;
+		this.maxInFlight = maxInFlight;
+	}
+
+	/**
+	 * Starts {@code ratePerSecond} calls from {@code calls} per second for {@code duration}, waits for the
+	 * outstanding ones and returns the stats per endpoint, plus {@link #TOTAL} over all of them.
+	 */
+	Map<String, EndpointStats> run(Supplier<Call> calls, double ratePerSecond, Duration duration) {
+		Map<String, EndpointStats> stats = new ConcurrentSkipListMap<>();
+		EndpointStats total = stats.computeIfAbsent(TOTAL, EndpointStats::new);
+		Semaphore inFlight = new Semaphore(maxInFlight);
+		long interval = (long) (1_000_000_000L / ratePerSecond);
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long scheduled = start; scheduled < end; scheduled += interval) {
+				long wait = scheduled - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+				Call call = calls.get();
+				EndpointStats endpoint = stats.computeIfAbsent(call.endpoint(), EndpointStats::new);
+				if (!inFlight.tryAcquire()) {
+					endpoint.record(EndpointStats.DROPPED, 0);
+					total.record(EndpointStats.DROPPED, 0);
+					continue;
+				}
+				long intendedStart = scheduled;
+				executor.execute(() -> {
+					try {
+						int status = send(call);
+						long latency = System.nanoTime() - intendedStart;
+						endpoint.record(status, latency);
+						total.record(status, latency);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		}
+		Duration elapsed = Duration.ofNanos(Math.max(System.nanoTime(), end) - start);
+		stats.values().forEach(endpoint -> endpoint.finish(elapsed));
+		return stats;
+	}
+
+	private int send(Call call) {
+		try {
+			HttpResponse<String> response = httpClient.send(call.request(), HttpResponse.BodyHandlers.ofString());
+			if (response.statusCode() / 100 == 2) {
+				call.onSuccess().accept(response.body());
+			}
+			return response.statusCode();
+		} catch (IOException e) {
+			return EndpointStats.IO_ERROR;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return EndpointStats.IO_ERROR;
+		}
+	}
+
+	/**
+	 * Latencies and status codes of one endpoint; anything but a 2xx counts as an error.
+	 */
+	static final class EndpointStats {
+
+		static final int IO_ERROR = -1;
+		static final int DROPPED = -2;
+
+		private final String endpoint;
+		private final Map<Integer, Integer> statuses = new TreeMap<>();
+		private long[] latencies = new long[1024];
+		private int count;
+		private int errors;
+		private Duration elapsed;
+
+		EndpointStats(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		synchronized void record(int status, long latencyNanos) {
+			statuses.merge(status, 1, Integer::sum);
+			if (status / 100 != 2) {
+				errors++;
+			}
+			if (status == DROPPED) {
+				return;
+			}
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+		}
+
+		synchronized void finish(Duration elapsed) {
+			this.elapsed = elapsed;
+			Arrays.sort(latencies, 0, count);
+		}
+
+		String getEndpoint() {
+			return endpoint;
+		}
+
+		synchronized int getRequests() {
+			return statuses.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+		synchronized double getThroughput() {
+			return count / (elapsed.toNanos() / 1e9);
+		}
+
+		synchronized double getErrorRate() {
+			int requests = getRequests();
+			return requests == 0 ? 0 : (double) errors / requests;
+		}
+
+		/**
+		 * Latency at the given percentile in milliseconds, once the run has finished.
+		 */
+		synchronized double percentile(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100 * count) - 1;
+			return latencies[Math.max(0, Math.min(index, count - 1))] / 1e6;
+		}
+
+		synchronized double getMax() {
+			return count == 0 ? 0 : latencies[count - 1] / 1e6;
+		}
+
+		/**
+		 * Status codes seen, e.g. {@code 200=950 409=3 dropped=2}.
+		 */
+		synchronized String getStatuses() {
+			StringBuilder summary = new StringBuilder();
+			statuses.forEach((status, times) -> summary.append(summary.isEmpty() ? "" : " ")
+					.append(status == IO_ERROR ? "io-error" : status == DROPPED ? "dropped" : status)
+					.append('=').append(times));
+			return summary.toString();
+		}
+	}
+}
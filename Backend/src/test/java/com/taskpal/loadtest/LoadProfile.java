@@ -0,0 +1,59 @@
+package com.taskpal.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Size of the seeded dataset and shape of the load, read from {@code loadtest.*} system properties, e.g.
+ * {@code -Dloadtest.users=2000 -Dloadtest.rate=300 -Dloadtest.mix=list:60,patch:40}.
+ *
+ * @param users           seeded users, all verified and sharing {@link DatasetSeeder#PASSWORD}
+ * @param googleShare     fraction of users linked to Google Calendar through the fake server
+ * @param flatTasks       top-level tasks without subtasks, per user
+ * @param wideTrees       trees of one parent with {@code wideTreeWidth} subtasks, per user
+ * @param deepTrees       chains of {@code deepTreeDepth} nested subtasks, per user
+ * @param rate            requests started per second, whether or not earlier ones have finished
+ * @param warmup          load applied before measuring, to warm the JIT, pools and caches
+ * @param duration        measured window
+ * @param maxInFlight     outstanding requests beyond which new ones are dropped and counted as errors
+ * @param mix             relative weight of each operation in {@code TaskPalLoadBenchmark.Operation}
+ */
+record LoadProfile(int users, double googleShare, int flatTasks, int wideTrees, int wideTreeWidth, int deepTrees,
+		int deepTreeDepth, double rate, Duration warmup, Duration duration, int maxInFlight,
+		Map<String, Integer> mix) {
+
+	static final String DEFAULT_MIX = "list:40,create:10,subtask:5,update:10,patch:15,complete:10,reorder:5,"
+			+ "delete:4,signin:1";
+
+	static LoadProfile fromSystemProperties() {
+		return new LoadProfile(
+				Integer.getInteger("loadtest.users", 500),
+				Double.parseDouble(System.getProperty("loadtest.google-share", "0.2")),
+				Integer.getInteger("loadtest.flat-tasks", 20),
+				Integer.getInteger("loadtest.wide-trees", 2),
+				Integer.getInteger("loadtest.wide-tree-width", 20),
+				Integer.getInteger("loadtest.deep-trees", 1),
+				Integer.getInteger("loadtest.deep-tree-depth", 10),
+				Double.parseDouble(System.getProperty("loadtest.rate", "50")),
+				Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+				Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+				Integer.getInteger("loadtest.max-in-flight", 2000),
+				parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)));
+	}
+
+	int tasksPerUser() {
+		return flatTasks + wideTrees * (1 + wideTreeWidth) + deepTrees * deepTreeDepth;
+	}
+
+	private static Map<String, Integer> parseMix(String mix) {
+		return Arrays.stream(mix.split(","))
+				.map(String::trim)
+				.filter(entry -> !entry.isEmpty())
+				.map(entry -> entry.split(":"))
+				.collect(Collectors.toMap(entry -> entry[0].trim(), entry -> Integer.parseInt(entry[1].trim()),
+						(first, second) -> second, LinkedHashMap::new));
+	}
+}
@@ -0,0 +1,314 @@
+package com.taskpal.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskpal.loadtest.DatasetSeeder.SeededUser;
+import com.taskpal.loadtest.LoadDriver.Call;
+import com.taskpal.loadtest.LoadDriver.EndpointStats;
+import com.taskpal.model.User;
+import com.taskpal.security.JwtUtils;
+import com.taskpal.support.FakeGoogleCalendarServer;
+
+/**
+ * End-to-end load test of one TaskPal node: the whole application on a random port, backed by the Postgres
+ * in {@code TASKPAL_TEST_DB_URL} (migrated into a scratch schema, cleaned at the start of every run and left
+ * behind for inspection) and by a fake Google for the calendar-linked users.
+ * <p>
+ * Seeds the dataset described by {@link LoadProfile}, then drives a weighted mix of the task and sign-in
+ * endpoints at a fixed arrival rate: first a warmup that is thrown away, then the measured window. Reports
+ * throughput, latency percentiles and error rates per endpoint to the log and to
+ * {@code target/loadtest-report.csv}. Raise {@code loadtest.rate} between runs until the error rate or p99
+ * stops being acceptable to find what one node can take. Rate limiting and the SQL budget warnings are off,
+ * everything else runs as configured, background jobs included.
+ * <p>
+ * Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark -Dtest=TaskPalLoadBenchmark -Dloadtest.rate=200}.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.flyway.schemas=" + TaskPalLoadBenchmark.SCHEMA, "spring.flyway.clean-disabled=false",
+		"app.rate-limit.enabled=false",
+		// One warning per over-budget request would bury the report; the counts are still in the SQL meters
+		"logging.level.com.taskpal.config.SqlBudgetFilter=ERROR" })
+@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_DB_URL", matches = ".+")
+class TaskPalLoadBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(TaskPalLoadBenchmark.class);
+
+	static final String SCHEMA = "load_test";
+	private static final Path REPORT = Path.of("target", "loadtest-report.csv");
+
+	private static FakeGoogleCalendarServer google;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JwtUtils jwtUtils;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	/**
+	 * Operations in the mix, named as in {@code loadtest.mix}.
+	 */
+	enum Operation {
+		LIST("list", "GET /api/tasks"),
+		CREATE("create", "POST /api/tasks"),
+		SUBTASK("subtask", "POST /api/tasks (subtask)"),
+		UPDATE("update", "PUT /api/tasks/{id}"),
+		PATCH("patch", "PATCH /api/tasks/{id}"),
+		COMPLETE("complete", "PATCH /api/tasks/{id}/{completed}"),
+		REORDER("reorder", "PATCH /api/tasks/reorder"),
+		DELETE("delete", "DELETE /api/tasks/{id}"),
+		SIGNIN("signin", "POST /api/auth/signin");
+
+		private final String key;
+		private final String endpoint;
+
+		Operation(String key, String endpoint) {
+			this.key = key;
+			this.endpoint = endpoint;
+		}
+	}
+
+	/**
+	 * A seeded user with a token; only tasks created during the run are deleted, so the seeded ones stay valid
+	 * targets for edits.
+	 */
+	private record VirtualUser(SeededUser seeded, String token, ConcurrentLinkedDeque<Long> created) {
+
+		long randomTask() {
+			List<Long> taskIds = seeded.taskIds();
+			return taskIds.get(ThreadLocalRandom.current().nextInt(taskIds.size()));
+		}
+	}
+
+	@TestConfiguration
+	static class CleanSchema {
+
+		@Bean
+		FlywayMigrationStrategy cleanMigrate() {
+			return flyway -> {
+				flyway.clean();
+				flyway.migrate();
+			};
+		}
+	}
+
+	@DynamicPropertySource
+	static void environment(DynamicPropertyRegistry registry) throws IOException {
+		google = new FakeGoogleCalendarServer();
+		String url = System.getenv("TASKPAL_TEST_DB_URL");
+		registry.add("spring.datasource.url", () -> url + (url.contains("?") ? "&" : "?") + "currentSchema=" + SCHEMA);
+		registry.add("spring.datasource.username",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres"));
+		registry.add("spring.datasource.password",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres"));
+		registry.add("google.oauth.token-url", google::getTokenUrl);
+		registry.add("google.calendar.root-url", google::getRootUrl);
+	}
+
+	@AfterAll
+	static void stopGoogle() {
+		if (google != null) {
+			google.close();
+		}
+	}
+
+	@Test
+	void serveTheMixAtAFixedArrivalRate() throws IOException {
+		LoadProfile profile = LoadProfile.fromSystemProperties();
+		long seedStart = System.nanoTime();
+		List<SeededUser> seeded = new DatasetSeeder(jdbcTemplate)
+				.seed(profile, passwordEncoder.encode(DatasetSeeder.PASSWORD), google);
+		logger.info("Seeded {} users ({} linked to Google) with {} tasks each in {} ms", seeded.size(),
+				seeded.stream().filter(SeededUser::google).count(), profile.tasksPerUser(),
+				(System.nanoTime() - seedStart) / 1_000_000);
+
+		List<VirtualUser> users = seeded.stream()
+				.map(user -> new VirtualUser(user,
+						jwtUtils.generateJwtTokenWithUser(User.builder().email(user.email()).build()),
+						new ConcurrentLinkedDeque<>()))
+				.toList();
+		LoadDriver driver = new LoadDriver(HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build(),
+				profile.maxInFlight());
+		Supplier<Call> mix = mix(profile, users);
+
+		logger.info("Warming up at {} requests/s for {}", profile.rate(), profile.warmup());
+		driver.run(mix, profile.rate(), profile.warmup());
+		google.getStats().reset();
+		logger.info("Measuring at {} requests/s for {}", profile.rate(), profile.duration());
+		Map<String, EndpointStats> stats = driver.run(mix, profile.rate(), profile.duration());
+
+		report(profile, stats);
+		assertTrue(stats.get(LoadDriver.TOTAL).getRequests() > 0, "No requests were made");
+	}
+
+	private Supplier<Call> mix(LoadProfile profile, List<VirtualUser> users) {
+		List<Operation> operations = new ArrayList<>();
+		List<Integer> cumulativeWeights = new ArrayList<>();
+		int totalWeight = 0;
+		for (Operation operation : Operation.values()) {
+			int weight = profile.mix().getOrDefault(operation.key, 0);
+			if (weight > 0) {
+				totalWeight += weight;
+				operations.add(operation);
+				cumulativeWeights.add(totalWeight);
+			}
+		}
+		if (operations.isEmpty()) {
+			throw new IllegalArgumentException("loadtest.mix has no known operation: " + profile.mix());
+		}
+		int weights = totalWeight;
+		return () -> {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			int pick = random.nextInt(weights);
+			int index = 0;
+			while (cumulativeWeights.get(index) <= pick) {
+				index++;
+			}
+			return call(operations.get(index), users.get(random.nextInt(users.size())));
+		};
+	}
+
+	private Call call(Operation operation, VirtualUser user) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		switch (operation) {
+		case LIST:
+			return new Call(operation.endpoint, request(user, "/api/tasks").GET().build());
+		case CREATE:
+		case SUBTASK:
+			Map<String, Object> task = new HashMap<>(Map.of("title", "Load task " + random.nextInt(1000),
+					"description", "Created by the load test", "dueDate", LocalDate.now().plusDays(random.nextInt(30)),
+					"weight", 1 + random.nextInt(5)));
+			if (operation == Operation.SUBTASK) {
+				task.put("parentTaskId", user.randomTask());
+			}
+			return new Call(operation.endpoint, request(user, "/api/tasks").POST(json(task)).build(),
+					body -> user.created().add(createdId(body)));
+		case UPDATE:
+			return new Call(operation.endpoint, request(user, "/api/tasks/" + user.randomTask())
+					.PUT(json(Map.of("title", "Updated " + random.nextInt(1000), "description", "Updated by the load test",
+							"dueDate", LocalDate.now().plusDays(random.nextInt(30)), "weight", 1 + random.nextInt(5))))
+					.build());
+		case PATCH:
+			return new Call(operation.endpoint, request(user, "/api/tasks/" + user.randomTask())
+					.header("Content-Type", "application/merge-patch+json")
+					.method("PATCH", json(Map.of("title", "Patched " + random.nextInt(1000)))).build());
+		case COMPLETE:
+			return new Call(operation.endpoint, request(user, "/api/tasks/" + user.randomTask() + "/" + random.nextBoolean())
+					.method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+		case REORDER:
+			return new Call(operation.endpoint, request(user, "/api/tasks/reorder?sourceId=" + user.randomTask()
+					+ "&destinationId=" + user.randomTask()).method("PATCH", HttpRequest.BodyPublishers.noBody()).build());
+		case DELETE:
+			Long createdId = user.created().poll();
+			if (createdId == null) {
+				// Nothing of this user's to delete yet; a read keeps the arrival rate
+				return call(Operation.LIST, user);
+			}
+			return new Call(operation.endpoint, request(user, "/api/tasks/" + createdId).DELETE().build());
+		case SIGNIN:
+			return new Call(operation.endpoint, HttpRequest.newBuilder(uri("/api/auth/signin"))
+					.header("Content-Type", "application/json")
+					.POST(json(Map.of("email", user.seeded().email(), "password", DatasetSeeder.PASSWORD))).build());
+		default:
+			throw new IllegalArgumentException("Unknown operation " + operation);
+		}
+	}
+
+	private HttpRequest.Builder request(VirtualUser user, String path) {
+		return HttpRequest.newBuilder(uri(path))
+				.timeout(Duration.ofSeconds(30))
+				.header("Authorization", "Bearer " + user.token())
+				.header("Content-Type", "application/json");
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private HttpRequest.BodyPublisher json(Object body) {
+		try {
+			return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+		} catch (JsonProcessingException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	private long createdId(String body) {
+		try {
+			return objectMapper.readTree(body).path("data").path("id").asLong();
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void report(LoadProfile profile, Map<String, EndpointStats> stats) throws IOException {
+		StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+				"%n%-36s %8s %9s %7s %9s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "req/s", "errors",
+				"p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+		List<String> csv = new ArrayList<>(List.of("endpoint,requests,throughput,error_rate,p50_ms,p90_ms,p99_ms,"
+				+ "p999_ms,max_ms,statuses"));
+		for (EndpointStats endpoint : stats.values()) {
+			table.append(String.format(Locale.ROOT, "%-36s %8d %9.1f %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f  %s%n",
+					endpoint.getEndpoint(), endpoint.getRequests(), endpoint.getThroughput(),
+					endpoint.getErrorRate() * 100, endpoint.percentile(50), endpoint.percentile(90),
+					endpoint.percentile(99), endpoint.percentile(99.9), endpoint.getMax(), endpoint.getStatuses()));
+			csv.add(String.format(Locale.ROOT, "\"%s\",%d,%.2f,%.4f,%.2f,%.2f,%.2f,%.2f,%.2f,%s",
+					endpoint.getEndpoint(), endpoint.getRequests(), endpoint.getThroughput(), endpoint.getErrorRate(),
+					endpoint.percentile(50), endpoint.percentile(90), endpoint.percentile(99),
+					endpoint.percentile(99.9), endpoint.getMax(), endpoint.getStatuses()));
+		}
+		FakeGoogleCalendarServer.Stats googleStats = google.getStats();
+		logger.info("Load test at {} requests/s for {}, {} users:{}google requests {}, 429 {}, 5xx {}",
+				profile.rate(), profile.duration(), profile.users(), table, googleStats.getRequests(),
+				googleStats.getThrottled(), googleStats.getErrors());
+		Files.createDirectories(REPORT.getParent());
+		Files.write(REPORT, csv);
+	}
+}
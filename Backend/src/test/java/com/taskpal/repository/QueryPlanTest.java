@@ -0,0 +1,234 @@
+package com.taskpal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+/**
+ * Checks that every repository and job query is served by an index once the tables hold realistic volumes.
+ * <p>
+ * Runs against the Postgres database in {@code TASKPAL_TEST_DB_URL} (with {@code TASKPAL_TEST_DB_USER} and
+ * {@code TASKPAL_TEST_DB_PASSWORD}), applying the migrations to a scratch schema, and is skipped without it.
+ * The SQL mirrors what Hibernate generates for each repository method; keep the two in step when adding
+ * or changing a query.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_DB_URL", matches = ".+")
+class QueryPlanTest {
+
+	private static final String SCHEMA = "query_plan_test";
+
+	private static final Map<String, String> QUERIES = Map.ofEntries(
+			// TaskRepository
+			Map.entry("TaskRepository.findByIdAndUserEmail", """
+					SELECT t.* FROM task t JOIN users u ON u.id = t.user_id
+					WHERE t.id = 4242 AND u.email = 'user42@example.com'"""),
+			Map.entry("TaskRepository.findByIdAndUser",
+					"SELECT t.* FROM task t WHERE t.id = 4242 AND t.user_id = 42"),
+			Map.entry("TaskRepository.findByUser",
+					"SELECT t.* FROM task t WHERE t.user_id = 42"),
+			Map.entry("TaskRepository.findByParentTaskAndUser",
+					"SELECT t.* FROM task t WHERE t.parent_task_id = 4241 AND t.user_id = 42"),
+			Map.entry("TaskRepository.findByUserIdAndGoogleEventIdIsNullOrderById",
+					"SELECT t.* FROM task t WHERE t.user_id = 42 AND t.google_event_id IS NULL ORDER BY t.id"),
+			Map.entry("TaskRepository.findByUserIdAndGoogleEventIdIn", """
+					SELECT t.* FROM task t
+					WHERE t.user_id = 42 AND t.google_event_id IN ('evt-100042', 'evt-150042')"""),
+			Map.entry("TaskRepository.findMaxPriorityScoreByUserId",
+					"SELECT MAX(t.priority_score) FROM task t WHERE t.user_id = 42"),
+			Map.entry("TaskRepository.updateGoogleEventId",
+					"UPDATE task SET google_event_id = 'evt-new' WHERE id = 4243 AND google_event_id IS NULL"),
+			// UserRepository
+			Map.entry("UserRepository.findByEmail",
+					"SELECT u.* FROM users u WHERE u.email = 'user42@example.com'"),
+			Map.entry("UserRepository.existsByEmail",
+					"SELECT u.id FROM users u WHERE u.email = 'user42@example.com' FETCH FIRST 1 ROWS ONLY"),
+			Map.entry("UserRepository.findByVerificationToken",
+					"SELECT u.* FROM users u WHERE u.verification_token = 'token-40'"),
+			Map.entry("UserRepository.findActiveWithTokenExpiringBefore", """
+					SELECT u.* FROM users u
+					WHERE u.google = true
+					  AND u.google_calendar_refresh_token IS NOT NULL
+					  AND (u.google_calendar_token_expiry IS NULL OR u.google_calendar_token_expiry < now() + interval '10 minutes')
+					  AND u.id > 24999 AND u.id < 37501
+					  AND EXISTS (SELECT 1 FROM task t WHERE t.user_id = u.id AND t.updated_at > now() - interval '14 days')
+					ORDER BY u.id
+					FETCH FIRST 100 ROWS ONLY"""),
+			Map.entry("UserRepository.findMaxId",
+					"SELECT COALESCE(MAX(u.id), 0) FROM users u"),
+			Map.entry("UserRepository.updateGoogleTokens", """
+					UPDATE users SET google_calendar_access_token = 'a',
+					    google_calendar_refresh_token = COALESCE(NULL, google_calendar_refresh_token),
+					    google_calendar_token_expiry = now()
+					WHERE id = 40"""),
+			Map.entry("UserRepository.unlinkGoogle", """
+					UPDATE users SET google = false, google_calendar_access_token = NULL,
+					    google_calendar_refresh_token = NULL, google_calendar_token_expiry = NULL,
+					    google_calendar_sync_token = NULL, google_calendar_next_pull_at = NULL
+					WHERE id = 40"""),
+			Map.entry("UserRepository.findDueForCalendarPull", """
+					SELECT u.* FROM users u
+					WHERE u.google = true AND u.google_calendar_access_token IS NOT NULL
+					  AND (u.google_calendar_next_pull_at IS NULL OR u.google_calendar_next_pull_at <= now())
+					ORDER BY u.google_calendar_next_pull_at NULLS FIRST
+					FETCH FIRST 100 ROWS ONLY"""),
+			Map.entry("UserRepository.claimCalendarPull", """
+					UPDATE users SET google_calendar_next_pull_at = now() + interval '5 minutes'
+					WHERE id = 40 AND (google_calendar_next_pull_at IS NULL OR google_calendar_next_pull_at <= now())"""),
+			Map.entry("UserRepository.updateGoogleSyncToken",
+					"UPDATE users SET google_calendar_sync_token = 's1' WHERE id = 40"),
+			// Outbox repositories
+			Map.entry("CalendarOutboxRepository.lockDueEvents", """
+					SELECT o.* FROM calendar_outbox o
+					WHERE o.failed = false
+					  AND o.next_attempt_at <= now()
+					  AND (o.locked_until IS NULL OR o.locked_until < now())
+					  AND NOT EXISTS (SELECT 1 FROM calendar_outbox p
+					                  WHERE p.task_id = o.task_id AND p.failed = false AND p.id < o.id)
+					ORDER BY o.id
+					LIMIT 50
+					FOR UPDATE SKIP LOCKED"""),
+			Map.entry("CalendarOutboxRepository.lockMergeableUpdate", """
+					SELECT o.* FROM calendar_outbox o
+					WHERE o.id = (SELECT max(p.id) FROM calendar_outbox p WHERE p.task_id = 4242 AND p.failed = false)
+					  AND o.operation = 'UPDATE'
+					  AND o.failed = false
+					  AND o.attempts = 0
+					  AND o.locked_until IS NULL
+					FOR UPDATE SKIP LOCKED"""),
+			Map.entry("CalendarOutboxRepository.findPendingTaskIds", """
+					SELECT DISTINCT o.task_id FROM calendar_outbox o
+					WHERE o.failed = false AND o.task_id IN (4242, 4243, 4244)"""),
+			Map.entry("CalendarOutboxRepository.countByFailedFalse",
+					"SELECT count(o.id) FROM calendar_outbox o WHERE o.failed = false"),
+			Map.entry("EmailOutboxRepository.lockDueMessages", """
+					SELECT m.* FROM email_outbox m
+					WHERE m.failed = false
+					  AND m.next_attempt_at <= now()
+					  AND (m.locked_until IS NULL OR m.locked_until < now())
+					ORDER BY m.id
+					LIMIT 50
+					FOR UPDATE SKIP LOCKED"""),
+			Map.entry("EmailOutboxRepository.countByFailedFalse",
+					"SELECT count(m.id) FROM email_outbox m WHERE m.failed = false"),
+			Map.entry("EmailOutboxRepository.countByFailedTrue",
+					"SELECT count(m.id) FROM email_outbox m WHERE m.failed = true"),
+			// Scheduled jobs
+			Map.entry("TaskDigestJob.dueTasks", """
+					SELECT t.id, t.user_id, t.title, t.due_date, u.name, u.email
+					FROM task t JOIN users u ON u.id = t.user_id
+					WHERE t.completed = false
+					  AND t.due_date <= current_date + 1
+					  AND u.email_verified = true
+					  AND (u.last_digest_date IS NULL OR u.last_digest_date < current_date)
+					  AND t.user_id >= 12500 AND t.user_id < 25000
+					  AND (t.user_id, t.due_date, t.id) > (0, DATE '0001-01-01', 0)
+					ORDER BY t.user_id, t.due_date, t.id
+					LIMIT 1000"""),
+			Map.entry("RegistrationCleanupJob.deleteChunk", """
+					DELETE FROM users WHERE id IN (
+					    SELECT u.id FROM users u
+					    WHERE u.email_verified = false
+					      AND u.verification_token_expiry < now() - interval '7 days'
+					      AND NOT EXISTS (SELECT 1 FROM task t WHERE t.user_id = u.id)
+					    ORDER BY u.verification_token_expiry
+					    LIMIT 500
+					    FOR UPDATE SKIP LOCKED)"""));
+
+	/**
+	 * Queue depth gauges count nearly every row of an outbox during a sending backlog, where a sequential
+	 * scan is the cheapest plan there is.
+	 */
+	private static final Set<String> WHOLE_TABLE_COUNTS = Set.of("CalendarOutboxRepository.countByFailedFalse",
+			"EmailOutboxRepository.countByFailedFalse");
+
+	private SingleConnectionDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	void createSchema() {
+		dataSource = new SingleConnectionDataSource(System.getenv("TASKPAL_TEST_DB_URL"),
+				System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres"),
+				System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres"), true);
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+		Flyway.configure().dataSource(dataSource).schemas(SCHEMA).load().migrate();
+		jdbcTemplate.execute("SET search_path TO " + SCHEMA);
+		seed();
+	}
+
+	@AfterAll
+	void dropSchema() {
+		jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+		dataSource.destroy();
+	}
+
+	static List<String> queries() {
+		return QUERIES.keySet().stream().filter(name -> !WHOLE_TABLE_COUNTS.contains(name)).sorted().toList();
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void queryDoesNotScanWholeTables(String name) {
+		List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + QUERIES.get(name), String.class);
+		assertFalse(plan.stream().anyMatch(line -> line.contains("Seq Scan")),
+				() -> name + " falls back to a sequential scan:\n" + plan.stream().collect(Collectors.joining("\n")));
+	}
+
+	// 50k users, 500k tasks and outboxes holding a sending backlog plus a few parked failures
+	private void seed() {
+		jdbcTemplate.execute("""
+				INSERT INTO users (name, email, mobile_number, password, role, email_verified, google,
+				    verification_token, verification_token_expiry, created_at, updated_at,
+				    google_calendar_access_token, google_calendar_refresh_token, google_calendar_token_expiry,
+				    google_calendar_next_pull_at, last_digest_date)
+				SELECT 'User ' || i, 'user' || i || '@example.com', '5550100', 'hash', 'ROLE_USER', i % 20 <> 0, i % 10 = 0,
+				    CASE WHEN i % 20 = 0 THEN 'token-' || i END,
+				    CASE WHEN i % 20 = 0 THEN now() - (i % 30) * interval '1 day' END,
+				    now(), now(),
+				    CASE WHEN i % 10 = 0 THEN 'access-' || i END,
+				    CASE WHEN i % 10 = 0 THEN 'refresh-' || i END,
+				    CASE WHEN i % 10 = 0 THEN now() + (i % 120) * interval '1 minute' END,
+				    CASE WHEN i % 10 = 0 THEN now() + (i % 600) * interval '1 second' END,
+				    CASE WHEN i % 3 = 0 THEN current_date - 1 END
+				FROM generate_series(1, 50000) i
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO task (title, description, due_date, weight, priority_score, completed, parent_task_id,
+				    user_id, google_event_id, created_at, updated_at)
+				SELECT 'Task ' || i, 'Description', current_date + (i % 60) - 30, 1 + i % 5, i % 100, i % 10 < 7,
+				    CASE WHEN i % 5 = 0 THEN i - 1 END,
+				    CASE WHEN i % 5 = 0 THEN 1 + (i - 1) % 50000 ELSE 1 + i % 50000 END,
+				    CASE WHEN i % 2 = 0 THEN 'evt-' || i END,
+				    now() - (i % 60) * interval '1 day', now() - (i % 60) * interval '1 day'
+				FROM generate_series(1, 500000) i
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO calendar_outbox (operation, task_id, user_id, attempts, next_attempt_at, failed, created_at)
+				SELECT 'UPDATE', i, 1 + i % 50000, CASE WHEN i % 100 = 0 THEN 10 ELSE 0 END, now(), i % 100 = 0, now()
+				FROM generate_series(1, 100000) i
+				""");
+		jdbcTemplate.execute("""
+				INSERT INTO email_outbox (recipient, subject, body, attempts, next_attempt_at, failed, created_at)
+				SELECT 'user' || i || '@example.com', 'Subject', 'Body', CASE WHEN i % 100 = 0 THEN 8 ELSE 0 END,
+				    now(), i % 100 = 0, now()
+				FROM generate_series(1, 100000) i
+				""");
+		for (String table : List.of("users", "task", "calendar_outbox", "email_outbox")) {
+			jdbcTemplate.execute("VACUUM ANALYZE " + table);
+		}
+	}
+}
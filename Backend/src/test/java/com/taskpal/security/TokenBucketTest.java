@@ -0,0 +1,31 @@
+package com.taskpal.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+	@Test
+	void allowsBurstUpToCapacityThenRejects() {
+		TokenBucket bucket = new TokenBucket(3, 60);
+		long now = 1_000_000_000L;
+
+		assertEquals(0, bucket.tryConsume(now));
+		assertEquals(0, bucket.tryConsume(now));
+		assertEquals(0, bucket.tryConsume(now));
+		assertTrue(bucket.tryConsume(now) > 0);
+	}
+
+	@Test
+	void refillsAtConfiguredRate() {
+		TokenBucket bucket = new TokenBucket(1, 60);
+		long now = 1_000_000_000L;
+
+		assertEquals(0, bucket.tryConsume(now));
+		long wait = bucket.tryConsume(now);
+		assertEquals(1_000_000_000L, wait);
+		assertEquals(0, bucket.tryConsume(now + wait));
+	}
+}
@@ -0,0 +1,66 @@
+package com.taskpal.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.testing.http.MockHttpTransport;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.taskpal.exception.CalendarUnavailableException;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.TaskRepository;
+
+class CalendarBackfillServiceTest {
+
+	private CalendarBackfillService backfill;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		backfill.shutdown();
+	}
+
+	@Test
+	void queuesTasksOfRejectedChunksForTheOutboxWorker() throws IOException {
+		User user = User.builder().id(1L).email("ann@example.com").google(true).build();
+		List<Task> tasks = List.of(task(10L, user), task(11L, user), task(12L, user));
+		TaskRepository taskRepository = mock(TaskRepository.class);
+		when(taskRepository.findByUserIdAndGoogleEventIdIsNullOrderById(1L)).thenReturn(tasks);
+		GoogleCalendarService googleCalendarService = mock(GoogleCalendarService.class);
+		when(googleCalendarService.buildEvent(any(Task.class))).thenReturn(new Event());
+		GoogleCalendarClientCache clientCache = mock(GoogleCalendarClientCache.class);
+		when(clientCache.get(user)).thenReturn(new Calendar.Builder(new MockHttpTransport(),
+				GsonFactory.getDefaultInstance(), null).setApplicationName("test").build());
+		CalendarCircuitBreaker breaker = mock(CalendarCircuitBreaker.class);
+		when(breaker.call(any(), any())).thenThrow(
+				new CalendarUnavailableException("Google Calendar circuit is open", Duration.ofSeconds(30)));
+		CalendarOutboxService outboxService = mock(CalendarOutboxService.class);
+		backfill = new CalendarBackfillService(taskRepository, googleCalendarService, clientCache, breaker,
+				outboxService, mock(JdbcTemplate.class), 2, 1, 1);
+
+		backfill.start(user);
+
+		verify(outboxService, timeout(5000)).enqueueCreates(user, tasks.subList(0, 2));
+		verify(outboxService, timeout(5000)).enqueueCreates(user, tasks.subList(2, 3));
+	}
+
+	private static Task task(Long id, User user) {
+		Task task = new Task();
+		task.setId(id);
+		task.setUser(user);
+		task.setTitle("Task " + id);
+		return task;
+	}
+}
@@ -0,0 +1,72 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.http.HttpResponseException;
+
+import com.taskpal.exception.CalendarUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CalendarCircuitBreakerTest {
+
+	private CalendarCircuitBreaker breaker(Duration openDuration) {
+		return new CalendarCircuitBreaker(new SimpleMeterRegistry(), 2, Duration.ZERO, 4, 4, 0.5, openDuration, 1,
+				Duration.ofMinutes(1), Duration.ofMinutes(5));
+	}
+
+	private static GoogleJsonResponseException quotaExceeded() {
+		return new GoogleJsonResponseException(
+				new HttpResponseException.Builder(429, "Too Many Requests", new HttpHeaders()), null);
+	}
+
+	@Test
+	void opensWhenFailureRateCrossesThreshold() throws IOException {
+		CalendarCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+		breaker.call(() -> "ok");
+		breaker.call(() -> "ok");
+		assertThrows(IOException.class, () -> breaker.call(() -> { throw new IOException("timeout"); }));
+		assertThrows(IOException.class, () -> breaker.call(() -> { throw new IOException("timeout"); }));
+
+		assertEquals(CalendarCircuitBreaker.State.OPEN, breaker.getState());
+		assertThrows(CalendarUnavailableException.class, () -> breaker.call(() -> "never"));
+	}
+
+	@Test
+	void closesAfterSuccessfulTrial() throws IOException {
+		CalendarCircuitBreaker breaker = breaker(Duration.ZERO);
+		for (int i = 0; i < 4; i++) {
+			assertThrows(IOException.class, () -> breaker.call(() -> { throw new IOException("down"); }));
+		}
+
+		assertEquals(CalendarCircuitBreaker.State.HALF_OPEN, breaker.getState());
+		assertEquals("ok", breaker.call(() -> "ok"));
+		assertEquals(CalendarCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	@Test
+	void quotaErrorsBackOffOnlyThatUser() throws IOException {
+		CalendarCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+		for (int i = 0; i < 4; i++) {
+			assertThrows(CalendarUnavailableException.class, () -> breaker.call(1L, () -> {
+				throw quotaExceeded();
+			}));
+		}
+
+		assertEquals(CalendarCircuitBreaker.State.CLOSED, breaker.getState());
+		CalendarUnavailableException rejected = assertThrows(CalendarUnavailableException.class,
+				() -> breaker.call(1L, () -> "never"));
+		assertTrue(rejected.getRetryAfter().compareTo(Duration.ZERO) > 0);
+		assertEquals("ok", breaker.call(2L, () -> "ok"));
+	}
+}
@@ -0,0 +1,138 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taskpal.model.CalendarEventField;
+import com.taskpal.model.CalendarOutboxEvent;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.CalendarOutboxRepository;
+
+/**
+ * Debounced updates are merged into a pending row only while no worker can be sending it.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_DB_URL", matches = ".+")
+class CalendarOutboxServiceTest {
+
+	@Autowired
+	private CalendarOutboxService outboxService;
+
+	@Autowired
+	private CalendarOutboxRepository outboxRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User user;
+	private Task task;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("TASKPAL_TEST_DB_URL"));
+		registry.add("spring.datasource.username",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres"));
+		registry.add("spring.datasource.password",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres"));
+	}
+
+	@BeforeEach
+	void setUp() {
+		user = User.builder().id(1L).build();
+		// The outbox has no foreign key to task, so an unused id keeps the test's rows to itself
+		task = Task.builder().id(-ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE)).googleEventId("evt")
+				.build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM calendar_outbox WHERE task_id = ?", task.getId());
+	}
+
+	@Test
+	void burstOfEditsMergesIntoOneRow() {
+		enqueueUpdate(CalendarEventField.TITLE);
+		enqueueUpdate(CalendarEventField.DESCRIPTION);
+
+		List<CalendarOutboxEvent> rows = rows();
+		assertEquals(1, rows.size());
+		assertEquals(EnumSet.of(CalendarEventField.TITLE, CalendarEventField.DESCRIPTION),
+				rows.get(0).getChangedFields());
+	}
+
+	@Test
+	void claimedRowIsNotMergedInto() {
+		enqueueUpdate(CalendarEventField.TITLE);
+		jdbcTemplate.update("UPDATE calendar_outbox SET locked_until = ? WHERE task_id = ?",
+				LocalDateTime.now().plusMinutes(2), task.getId());
+
+		enqueueUpdate(CalendarEventField.DESCRIPTION);
+
+		List<CalendarOutboxEvent> rows = rows();
+		assertEquals(2, rows.size());
+		assertEquals(EnumSet.of(CalendarEventField.TITLE), rows.get(0).getChangedFields());
+		assertEquals(EnumSet.of(CalendarEventField.DESCRIPTION), rows.get(1).getChangedFields());
+	}
+
+	@Test
+	void rowBeingClaimedIsSkippedWithoutWaiting() throws Exception {
+		enqueueUpdate(CalendarEventField.TITLE);
+		CountDownLatch locked = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// Holds the row lock the way a worker's claim transaction does
+		CompletableFuture<Void> claim = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.queryForList("SELECT id FROM calendar_outbox WHERE task_id = ? FOR UPDATE", task.getId());
+			locked.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+		locked.await();
+		try {
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> enqueueUpdate(CalendarEventField.DESCRIPTION));
+		} finally {
+			release.countDown();
+			claim.get();
+		}
+
+		List<CalendarOutboxEvent> rows = rows();
+		assertEquals(2, rows.size());
+		assertEquals(EnumSet.of(CalendarEventField.TITLE), rows.get(0).getChangedFields());
+	}
+
+	private void enqueueUpdate(CalendarEventField field) {
+		transactionTemplate.executeWithoutResult(status -> outboxService.enqueueUpdate(user, task, EnumSet.of(field)));
+	}
+
+	private List<CalendarOutboxEvent> rows() {
+		return outboxRepository.findAll().stream()
+				.filter(event -> event.getTaskId().equals(task.getId()))
+				.sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+				.toList();
+	}
+}
@@ -0,0 +1,191 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.taskpal.model.Task;
+import com.taskpal.model.TaskEventType;
+import com.taskpal.model.User;
+import com.taskpal.repository.CalendarOutboxRepository;
+import com.taskpal.repository.TaskRepository;
+import com.taskpal.repository.UserRepository;
+import com.taskpal.support.FakeGoogleCalendarServer;
+import com.taskpal.support.FakeGoogleCalendarServer.FakeCalendar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CalendarPullServiceTest {
+
+	private FakeGoogleCalendarServer server;
+	private TaskRepository taskRepository;
+	private UserRepository userRepository;
+	private CalendarOutboxRepository outboxRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private CalendarPullService pullService;
+	private User user;
+	private FakeCalendar calendar;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new FakeGoogleCalendarServer();
+		taskRepository = mock(TaskRepository.class);
+		userRepository = mock(UserRepository.class);
+		outboxRepository = mock(CalendarOutboxRepository.class);
+		when(outboxRepository.findPendingTaskIds(anyCollection())).thenReturn(Set.of());
+		when(taskRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		eventPublisher = mock(ApplicationEventPublisher.class);
+
+		GoogleCalendarClientCache clientCache = new GoogleCalendarClientCache(new NetHttpTransport(), userRepository,
+				"client", "secret", 10, Duration.ofMinutes(1), 1000, 1000, server.getRootUrl(), server.getTokenUrl());
+		CalendarCircuitBreaker breaker = new CalendarCircuitBreaker(new SimpleMeterRegistry(), 2, Duration.ZERO, 10,
+				10, 0.5, Duration.ofSeconds(1), 1, Duration.ofSeconds(1), Duration.ofSeconds(10));
+		pullService = new CalendarPullService(clientCache, breaker, taskRepository, userRepository, outboxRepository,
+				new TransactionTemplate(mock(PlatformTransactionManager.class)), eventPublisher);
+
+		user = User.builder().id(1L).googleCalendarAccessToken("token-1").googleCalendarRefreshToken("refresh-1")
+				.build();
+		calendar = server.calendar("token-1");
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void fullSyncStoresSyncToken() throws IOException {
+		calendar.insert(Map.of("summary", "Write report"));
+
+		pullService.pull(user);
+
+		verify(userRepository).updateGoogleSyncToken(1L, "s1");
+	}
+
+	@Test
+	void remoteEditUpdatesLinkedTask() throws IOException {
+		String eventId = (String) calendar.insert(Map.of("summary", "Write report")).get("id");
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.patch(eventId, Map.of("summary", "Write final report", "description", "Due Friday",
+				"start", Map.of("date", "2026-10-23")));
+		Task task = Task.builder().id(7L).title("Write report").description("").googleEventId(eventId)
+				.subtasks(List.of()).build();
+		when(taskRepository.findByUserIdAndGoogleEventIdIn(eq(1L), anyCollection())).thenReturn(List.of(task));
+
+		assertEquals(1, pullService.pull(user));
+
+		assertEquals("Write final report", task.getTitle());
+		assertEquals("Due Friday", task.getDescription());
+		assertEquals(LocalDate.of(2026, 10, 23), task.getDueDate());
+		verify(taskRepository).saveAndFlush(task);
+		verify(userRepository).updateGoogleSyncToken(1L, "s2");
+	}
+
+	@Test
+	void overlongRemoteTextIsCutToFitTheTask() throws IOException {
+		String eventId = (String) calendar.insert(Map.of("summary", "Write report")).get("id");
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.patch(eventId, Map.of("summary", "t".repeat(300), "description", "d".repeat(5000)));
+		Task task = Task.builder().id(7L).title("Write report").description("").googleEventId(eventId)
+				.subtasks(List.of()).build();
+		when(taskRepository.findByUserIdAndGoogleEventIdIn(eq(1L), anyCollection())).thenReturn(List.of(task));
+
+		assertEquals(1, pullService.pull(user));
+		assertEquals("t".repeat(255), task.getTitle());
+		assertEquals("d".repeat(255), task.getDescription());
+		verify(userRepository).updateGoogleSyncToken(1L, "s2");
+
+		// The same remote text again is no change
+		calendar.patch(eventId, Map.of("location", "Office"));
+		assertEquals(0, pullService.pull(user));
+	}
+
+	@Test
+	void remoteEditIsPushedToOpenTaskStreams() throws IOException {
+		String eventId = (String) calendar.insert(Map.of("summary", "Write report")).get("id");
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.patch(eventId, Map.of("summary", "Write final report"));
+		Task task = Task.builder().id(7L).title("Write report").description("").googleEventId(eventId).version(3)
+				.subtasks(List.of()).build();
+		when(taskRepository.findByUserIdAndGoogleEventIdIn(eq(1L), anyCollection())).thenReturn(List.of(task));
+
+		pullService.pull(user);
+
+		ArgumentCaptor<TaskChangedEvent> changed = ArgumentCaptor.forClass(TaskChangedEvent.class);
+		verify(eventPublisher).publishEvent(changed.capture());
+		assertEquals(1L, changed.getValue().userId());
+		assertEquals(TaskEventType.UPDATED, changed.getValue().event().getType());
+		assertEquals(7L, changed.getValue().event().getTaskId());
+		assertEquals("Write final report", changed.getValue().event().getTask().getTitle());
+		assertEquals(3L, changed.getValue().event().getTask().getVersion());
+	}
+
+	@Test
+	void cancelledEventUnlinksTask() throws IOException {
+		String eventId = (String) calendar.insert(Map.of("summary", "Write report")).get("id");
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.delete(eventId);
+		Task task = Task.builder().id(7L).title("Write report").googleEventId(eventId).subtasks(List.of()).build();
+		when(taskRepository.findByUserIdAndGoogleEventIdIn(eq(1L), anyCollection())).thenReturn(List.of(task));
+
+		pullService.pull(user);
+
+		assertNull(task.getGoogleEventId());
+		verify(taskRepository).saveAndFlush(task);
+		verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+	}
+
+	@Test
+	void pendingLocalEditWinsOverRemoteChange() throws IOException {
+		String eventId = (String) calendar.insert(Map.of("summary", "Write report")).get("id");
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.patch(eventId, Map.of("summary", "Remote title"));
+		Task task = Task.builder().id(7L).title("Local title").description("").googleEventId(eventId).build();
+		when(taskRepository.findByUserIdAndGoogleEventIdIn(eq(1L), anyCollection())).thenReturn(List.of(task));
+		when(outboxRepository.findPendingTaskIds(anyCollection())).thenReturn(Set.of(7L));
+
+		assertEquals(0, pullService.pull(user));
+
+		assertEquals("Local title", task.getTitle());
+		verify(taskRepository, never()).saveAndFlush(any());
+		verify(eventPublisher, never()).publishEvent(any(TaskChangedEvent.class));
+	}
+
+	@Test
+	void expiredSyncTokenFallsBackToFullSync() throws IOException {
+		calendar.insert(Map.of("summary", "Write report"));
+		user.setGoogleCalendarSyncToken("s1");
+		calendar.insert(Map.of("summary", "Plan sprint"));
+		calendar.expireSyncTokens();
+
+		pullService.pull(user);
+
+		ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+		verify(userRepository, times(2)).updateGoogleSyncToken(eq(1L), token.capture());
+		assertEquals(Arrays.asList(null, "s2"), token.getAllValues());
+	}
+}
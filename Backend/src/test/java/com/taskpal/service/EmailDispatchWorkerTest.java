@@ -0,0 +1,134 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.taskpal.model.EmailOutboxMessage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+class EmailDispatchWorkerTest {
+
+	private EmailOutboxService outboxService;
+	private JavaMailSenderImpl mailSender;
+	private Session session;
+	private Transport transport;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() throws MessagingException {
+		outboxService = mock(EmailOutboxService.class);
+		mailSender = mock(JavaMailSenderImpl.class);
+		session = mock(Session.class);
+		transport = mock(Transport.class);
+		meterRegistry = new SimpleMeterRegistry();
+		Session mimeSession = Session.getInstance(new Properties());
+		when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(mimeSession));
+		when(mailSender.getSession()).thenReturn(session);
+		when(mailSender.getHost()).thenReturn("smtp.example.com");
+		when(mailSender.getPort()).thenReturn(587);
+		when(session.getTransport("smtp")).thenReturn(transport);
+		when(transport.isConnected()).thenReturn(true);
+	}
+
+	@Test
+	void sendsTheWholeBatchOverOneConnection() throws MessagingException {
+		List<EmailOutboxMessage> batch = batch(3);
+		when(outboxService.claimDueMessages(50)).thenReturn(batch);
+
+		worker(10, 60).poll();
+
+		verify(transport).connect(eq("smtp.example.com"), eq(587), any(), any());
+		ArgumentCaptor<Message> sent = ArgumentCaptor.forClass(Message.class);
+		verify(transport, times(3)).sendMessage(sent.capture(), any(Address[].class));
+		assertEquals("ann2@example.com", sent.getAllValues().get(2).getAllRecipients()[0].toString());
+		batch.forEach(message -> verify(outboxService).complete(message));
+		verify(transport).close();
+		assertEquals(3, meterRegistry.get("taskpal.email.sends").tag("outcome", "success").counter().count());
+	}
+
+	@Test
+	void defersTheRestOfTheBatchWhenTheRateLimitRunsDry() throws MessagingException {
+		List<EmailOutboxMessage> batch = batch(3);
+		when(outboxService.claimDueMessages(50)).thenReturn(batch);
+
+		worker(2, 1).poll();
+
+		verify(transport, times(2)).sendMessage(any(), any(Address[].class));
+		ArgumentCaptor<Duration> delay = ArgumentCaptor.forClass(Duration.class);
+		verify(outboxService).defer(eq(batch.get(2)), delay.capture());
+		assertTrue(delay.getValue().compareTo(Duration.ofSeconds(50)) > 0);
+		verify(outboxService, never()).fail(any(), any());
+		verify(transport).close();
+	}
+
+	@Test
+	void connectFailureSpendsAnAttemptOnEveryClaimedMessage() throws MessagingException {
+		List<EmailOutboxMessage> batch = batch(3);
+		when(outboxService.claimDueMessages(50)).thenReturn(batch);
+		MessagingException refused = new MessagingException("Connection refused");
+		doThrow(refused).when(transport).connect(anyString(), anyInt(), any(), any());
+
+		worker(10, 60).poll();
+
+		batch.forEach(message -> verify(outboxService).fail(message, refused));
+		verify(transport, never()).sendMessage(any(), any(Address[].class));
+		verify(outboxService, never()).complete(any());
+		assertEquals(3, meterRegistry.get("taskpal.email.sends").tag("outcome", "failure").counter().count());
+	}
+
+	@Test
+	void failedSendDoesNotStopTheBatch() throws MessagingException {
+		List<EmailOutboxMessage> batch = batch(2);
+		when(outboxService.claimDueMessages(50)).thenReturn(batch);
+		MessagingException rejected = new MessagingException("550 Mailbox unavailable");
+		doThrow(rejected).doNothing().when(transport).sendMessage(any(), any(Address[].class));
+
+		worker(10, 60).poll();
+
+		verify(outboxService).fail(batch.get(0), rejected);
+		verify(outboxService).complete(batch.get(1));
+	}
+
+	private EmailDispatchWorker worker(int burst, int messagesPerMinute) {
+		EmailDispatchWorker worker = new EmailDispatchWorker(outboxService, mailSender, meterRegistry,
+				ObservationRegistry.NOOP, 50, burst, messagesPerMinute);
+		ReflectionTestUtils.setField(worker, "fromEmail", "noreply@taskpal.example");
+		return worker;
+	}
+
+	private static List<EmailOutboxMessage> batch(int size) {
+		return IntStream.range(0, size)
+				.mapToObj(i -> EmailOutboxMessage.builder().id((long) i).recipient("ann" + i + "@example.com")
+						.subject("Verify").body("<p>Hi</p>").build())
+				.toList();
+	}
+}
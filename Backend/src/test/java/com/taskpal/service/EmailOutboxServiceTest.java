@@ -0,0 +1,73 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.taskpal.model.EmailOutboxMessage;
+import com.taskpal.repository.EmailOutboxRepository;
+
+import jakarta.mail.MessagingException;
+
+class EmailOutboxServiceTest {
+
+	private EmailOutboxRepository outboxRepository;
+	private EmailOutboxService outboxService;
+
+	@BeforeEach
+	void setUp() {
+		outboxRepository = mock(EmailOutboxRepository.class);
+		outboxService = new EmailOutboxService(outboxRepository, mock(JdbcTemplate.class));
+		ReflectionTestUtils.setField(outboxService, "maxAttempts", 3);
+		ReflectionTestUtils.setField(outboxService, "backoffInitial", Duration.ofSeconds(30));
+		ReflectionTestUtils.setField(outboxService, "backoffMax", Duration.ofMinutes(1));
+	}
+
+	@Test
+	void failedAttemptIsRetriedWithBackoff() {
+		EmailOutboxMessage message = message(1);
+		LocalDateTime before = LocalDateTime.now();
+
+		outboxService.fail(message, new MessagingException("421 Service not available"));
+
+		assertEquals(2, message.getAttempts());
+		assertFalse(message.isFailed());
+		assertNull(message.getLockedUntil());
+		assertEquals("MessagingException: 421 Service not available", message.getLastError());
+		// The second attempt backs off 60s, capped at the maximum, with jitter over its upper half
+		assertFalse(message.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+		assertFalse(message.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(60)));
+		verify(outboxRepository).save(message);
+	}
+
+	@Test
+	void parksTheMessageAfterMaxAttempts() {
+		EmailOutboxMessage message = message(2);
+		LocalDateTime due = message.getNextAttemptAt();
+
+		outboxService.fail(message, new MessagingException("x".repeat(2000)));
+
+		assertEquals(3, message.getAttempts());
+		assertTrue(message.isFailed());
+		assertEquals(due, message.getNextAttemptAt());
+		assertEquals(1000, message.getLastError().length());
+		verify(outboxRepository).save(message);
+	}
+
+	private static EmailOutboxMessage message(int attempts) {
+		return EmailOutboxMessage.builder().id(1L).recipient("ann@example.com").subject("Verify").body("<p>Hi</p>")
+				.attempts(attempts).nextAttemptAt(LocalDateTime.now()).lockedUntil(LocalDateTime.now().plusMinutes(5))
+				.build();
+	}
+}
@@ -0,0 +1,43 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class EmailTemplatesTest {
+
+	@Test
+	void escapesValuesUnlessTripleBraced() {
+		EmailTemplate template = EmailTemplate.compile("test", "<p>{{name}}</p>{{{fragment}}}");
+		StringBuilder out = new StringBuilder();
+
+		template.render(Map.of("name", "<b>Tom & \"Jerry\"</b>", "fragment", "<li>row</li>"), out);
+
+		assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;</p><li>row</li>", out.toString());
+	}
+
+	@Test
+	void rejectsMissingValuesAndBrokenPlaceholders() {
+		EmailTemplate template = EmailTemplate.compile("test", "Hello {{name}}");
+
+		assertThrows(IllegalArgumentException.class, () -> template.render(Map.of(), new StringBuilder()));
+		assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("broken", "Hello {{name"));
+	}
+
+	@Test
+	void compilesClasspathTemplatesAtStartup() throws IOException {
+		EmailTemplates templates = new EmailTemplates();
+
+		String html = templates.render("verification",
+				Map.of("name", "Ann <script>", "verificationUrl", "http://localhost/verify?token=a&b"));
+
+		assertTrue(html.contains("Hello, Ann &lt;script&gt;!"));
+		assertTrue(html.contains("href='http://localhost/verify?token=a&amp;b'"));
+		assertThrows(IllegalArgumentException.class, () -> templates.render("missing", Map.of()));
+	}
+}
@@ -0,0 +1,78 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.api.client.auth.oauth2.TokenResponseException;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.taskpal.model.User;
+import com.taskpal.repository.UserRepository;
+import com.taskpal.support.FakeGoogleCalendarServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class GoogleCalendarClientCacheTest {
+
+	private FakeGoogleCalendarServer server;
+	private UserRepository userRepository;
+	private GoogleCalendarClientCache clientCache;
+	private CalendarCircuitBreaker breaker;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = new FakeGoogleCalendarServer();
+		userRepository = mock(UserRepository.class);
+		clientCache = new GoogleCalendarClientCache(new NetHttpTransport(), userRepository, "client", "secret", 10,
+				Duration.ofMinutes(1), 1000, 1000, server.getRootUrl(), server.getTokenUrl());
+		breaker = new CalendarCircuitBreaker(new SimpleMeterRegistry(), 2, Duration.ZERO, 4, 4, 0.5,
+				Duration.ofMinutes(1), 1, Duration.ofMinutes(1), Duration.ofMinutes(5));
+	}
+
+	@AfterEach
+	void tearDown() {
+		server.close();
+	}
+
+	@Test
+	void refreshPersistsTheNewAccessToken() throws IOException {
+		User user = user(1L, "refresh-1");
+
+		assertTrue(breaker.call(() -> clientCache.getCredential(user).refreshToken()));
+
+		verify(userRepository).updateGoogleTokens(any(), any(), any(), any());
+		verify(userRepository, never()).unlinkGoogle(anyLong());
+	}
+
+	@Test
+	void revokedGrantsUnlinkTheirUsersWithoutOpeningTheBreaker() {
+		for (long id = 1; id <= 4; id++) {
+			server.revoke("refresh-" + id);
+			User user = user(id, "refresh-" + id);
+
+			TokenResponseException rejected = assertThrows(TokenResponseException.class,
+					() -> breaker.call(() -> clientCache.getCredential(user).refreshToken()));
+
+			assertEquals("invalid_grant", rejected.getDetails().getError());
+			verify(userRepository).unlinkGoogle(id);
+		}
+		assertEquals(CalendarCircuitBreaker.State.CLOSED, breaker.getState());
+	}
+
+	private static User user(Long id, String refreshToken) {
+		return User.builder().id(id).google(true).googleCalendarAccessToken("token-" + id)
+				.googleCalendarRefreshToken(refreshToken).build();
+	}
+}
@@ -0,0 +1,102 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class JobCoordinatorTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private JobCoordinator coordinator;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		coordinator = new JobCoordinator(jdbcTemplate, "node-a", Duration.ofMinutes(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		coordinator.shutdown();
+	}
+
+	@Test
+	void runsAndRecordsCompletionWhenLeaseIsAcquired() {
+		when(jdbcTemplate.update(contains("INSERT INTO job_lease"), any(Object[].class))).thenReturn(1);
+		List<JobCoordinator.Lease> leases = new ArrayList<>();
+
+		assertTrue(coordinator.runExclusive("cleanup", Duration.ofMinutes(5), leases::add));
+
+		assertEquals(JobCoordinator.Partition.ALL, leases.get(0).getPartition());
+		verify(jdbcTemplate).update(contains("completed_at = CASE"), eq(true), eq("cleanup"), eq("node-a"));
+	}
+
+	@Test
+	void skipsJobHeldByAnotherNode() {
+		when(jdbcTemplate.update(contains("INSERT INTO job_lease"), any(Object[].class))).thenReturn(0);
+
+		assertFalse(coordinator.runExclusive("cleanup", Duration.ofMinutes(5), lease -> {
+			throw new AssertionError("must not run");
+		}));
+
+		verify(jdbcTemplate, never()).update(contains("completed_at = CASE"), any(Object[].class));
+	}
+
+	@Test
+	void releasesWithoutCompletionWhenJobFails() {
+		when(jdbcTemplate.update(contains("INSERT INTO job_lease"), any(Object[].class))).thenReturn(1);
+
+		assertThrows(IllegalStateException.class, () -> coordinator.runExclusive("cleanup", Duration.ofMinutes(5),
+				lease -> {
+					throw new IllegalStateException("boom");
+				}));
+
+		verify(jdbcTemplate).update(contains("completed_at = CASE"), eq(false), eq("cleanup"), eq("node-a"));
+	}
+
+	@Test
+	void runsOnlyThePartitionsItAcquires() {
+		when(jdbcTemplate.update(contains("INSERT INTO job_lease"), any(Object[].class))).thenAnswer(invocation -> {
+			String name = (String) ((Object[]) invocation.getRawArguments()[1])[0];
+			return Set.of("digest#0", "digest#2").contains(name) ? 1 : 0;
+		});
+		List<JobCoordinator.Partition> partitions = new ArrayList<>();
+
+		assertEquals(2, coordinator.runPartitioned("digest", 4, Duration.ofHours(1),
+				lease -> partitions.add(lease.getPartition())));
+
+		assertEquals(Set.of(new JobCoordinator.Partition(0, 4), new JobCoordinator.Partition(2, 4)),
+				Set.copyOf(partitions));
+	}
+
+	@Test
+	void partitionsCoverTheIdSpaceWithContiguousRanges() {
+		JobCoordinator.Partition first = new JobCoordinator.Partition(0, 3);
+		JobCoordinator.Partition middle = new JobCoordinator.Partition(1, 3);
+		JobCoordinator.Partition last = new JobCoordinator.Partition(2, 3);
+
+		assertEquals(0, first.fromId(100));
+		assertEquals(first.toId(100), middle.fromId(100));
+		assertEquals(middle.toId(100), last.fromId(100));
+		assertEquals(Long.MAX_VALUE, last.toId(100));
+		assertEquals(Long.MAX_VALUE, JobCoordinator.Partition.ALL.toId(0));
+	}
+}
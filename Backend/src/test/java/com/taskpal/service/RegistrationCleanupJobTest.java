@@ -0,0 +1,54 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RegistrationCleanupJobTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private SimpleMeterRegistry meterRegistry;
+	private RegistrationCleanupJob job;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		meterRegistry = new SimpleMeterRegistry();
+		job = new RegistrationCleanupJob(jdbcTemplate, mock(JobCoordinator.class), meterRegistry);
+		ReflectionTestUtils.setField(job, "grace", Duration.ofDays(7));
+		ReflectionTestUtils.setField(job, "chunkSize", 10);
+		ReflectionTestUtils.setField(job, "pause", Duration.ZERO);
+		ReflectionTestUtils.setField(job, "maxPerRun", 100);
+	}
+
+	@Test
+	void deletesChunksUntilAShortOne() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(10, 10, 3);
+
+		assertEquals(23, job.run(() -> true));
+
+		verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+		assertEquals(23, meterRegistry.counter("taskpal.cleanup.registrations.deleted").count());
+	}
+
+	@Test
+	void stopsAtTheRunCapAndWhenTheLeaseIsLost() {
+		when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(10);
+
+		assertEquals(100, job.run(() -> true));
+		assertEquals(10, job.run(() -> false));
+	}
+}
@@ -0,0 +1,159 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.taskpal.dto.TaskRequestDto;
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.exception.ConflictException;
+import com.taskpal.model.Role;
+import com.taskpal.model.User;
+import com.taskpal.repository.TaskRepository;
+import com.taskpal.repository.UserRepository;
+
+/**
+ * Many clients editing the same task at once, each doing read-modify-write with the version it read and
+ * retrying on 409. Every edit must survive, which only holds if stale writes are rejected.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_DB_URL", matches = ".+")
+class TaskConcurrencyTest {
+
+	private static final int WRITERS = 8;
+	private static final int EDITS_PER_WRITER = 10;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	private User user;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("TASKPAL_TEST_DB_URL"));
+		registry.add("spring.datasource.username",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres"));
+		registry.add("spring.datasource.password",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+		if (user != null) {
+			taskRepository.deleteAll(taskRepository.findByUser(user));
+			userRepository.delete(user);
+		}
+	}
+
+	@Test
+	void concurrentEditsAreNeverLost() throws Exception {
+		user = userRepository.save(User.builder()
+				.name("Concurrency")
+				.email("concurrency-" + UUID.randomUUID() + "@example.com")
+				.mobileNumber("0000000000")
+				.password("x")
+				.role(Role.ROLE_USER)
+				.emailVerified(true)
+				.createdAt(LocalDateTime.now())
+				.updatedAt(LocalDateTime.now())
+				.build());
+		signIn();
+		TaskRequestDto create = new TaskRequestDto();
+		create.setTitle("Shared");
+		create.setDescription("");
+		create.setDueDate(LocalDate.now().plusDays(7));
+		create.setWeight(1);
+		long taskId = taskService.addTask(create).getId();
+
+		AtomicInteger conflicts = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		List<Future<?>> writers = new ArrayList<>();
+		for (int w = 0; w < WRITERS; w++) {
+			int writer = w;
+			writers.add(executor.submit(() -> {
+				signIn();
+				start.await();
+				for (int edit = 0; edit < EDITS_PER_WRITER; edit++) {
+					appendWithRetry(taskId, token(writer, edit), conflicts);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> writer : writers) {
+			writer.get();
+		}
+		executor.shutdown();
+
+		TaskResponseDto result = read(taskId);
+		for (int w = 0; w < WRITERS; w++) {
+			for (int edit = 0; edit < EDITS_PER_WRITER; edit++) {
+				assertTrue(result.getDescription().contains(token(w, edit)), "lost edit " + token(w, edit));
+			}
+		}
+		assertEquals(WRITERS * EDITS_PER_WRITER, result.getVersion());
+		assertTrue(conflicts.get() > 0, "writers never raced, the test proves nothing");
+	}
+
+	private void appendWithRetry(long taskId, String token, AtomicInteger conflicts) {
+		while (true) {
+			TaskResponseDto current = read(taskId);
+			TaskRequestDto edit = new TaskRequestDto();
+			edit.setTitle(current.getTitle());
+			edit.setDescription(current.getDescription() + token);
+			edit.setDueDate(current.getDueDate());
+			edit.setWeight(current.getWeight());
+			edit.setVersion(current.getVersion());
+			try {
+				taskService.updateTask(taskId, edit);
+				return;
+			} catch (ConflictException | OptimisticLockingFailureException e) {
+				conflicts.incrementAndGet();
+			}
+		}
+	}
+
+	// Three characters each, so all edits fit the 255 character description
+	private static String token(int writer, int edit) {
+		return (char) ('a' + writer) + Integer.toString(edit) + ",";
+	}
+
+	private TaskResponseDto read(long taskId) {
+		return taskService.getTask().stream().filter(task -> task.getId() == taskId).findFirst().orElseThrow();
+	}
+
+	private void signIn() {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user.getEmail(), null, AuthorityUtils.NO_AUTHORITIES));
+	}
+}
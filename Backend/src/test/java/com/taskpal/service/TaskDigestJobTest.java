@@ -0,0 +1,123 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.taskpal.model.EmailOutboxMessage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskDigestJobTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+	private JdbcTemplate jdbcTemplate;
+	private EmailOutboxService emailOutboxService;
+	private TaskDigestJob job;
+	private final List<Object[]> rows = new ArrayList<>();
+	private final List<Object[]> pageQueries = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		emailOutboxService = mock(EmailOutboxService.class);
+		job = new TaskDigestJob(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				emailOutboxService, new EmailTemplates(), mock(JobCoordinator.class), new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(job, "pageSize", 2);
+		ReflectionTestUtils.setField(job, "emailBatchSize", 1);
+		ReflectionTestUtils.setField(job, "maxTasksPerSection", 20);
+
+		// Serves the rows after the keyset cursor, like the real query
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(invocation -> {
+			Object[] args = (Object[]) invocation.getRawArguments()[2];
+			pageQueries.add(args);
+			long afterUser = (Long) args[4];
+			LocalDate afterDate = ((Date) args[5]).toLocalDate();
+			long afterId = (Long) args[6];
+			int limit = (Integer) args[7];
+			RowMapper<?> mapper = invocation.getArgument(1);
+			List<Object> page = new ArrayList<>();
+			for (Object[] row : rows) {
+				long userId = (Long) row[1];
+				LocalDate dueDate = (LocalDate) row[3];
+				long id = (Long) row[0];
+				int byUser = Long.compare(userId, afterUser);
+				int byDate = dueDate.compareTo(afterDate);
+				if ((byUser > 0 || byUser == 0 && (byDate > 0 || byDate == 0 && id > afterId)) && page.size() < limit) {
+					page.add(mapper.mapRow(resultSet(row), page.size()));
+				}
+			}
+			return page;
+		});
+	}
+
+	@Test
+	void groupsStreamedRowsPerUserAcrossPages() {
+		rows.add(row(1, 1, "File taxes", TODAY.minusDays(3), "Ann", "ann@example.com"));
+		rows.add(row(2, 1, "Call <plumber>", TODAY, "Ann", "ann@example.com"));
+		rows.add(row(3, 1, "Pack", TODAY.plusDays(1), "Ann", "ann@example.com"));
+		rows.add(row(4, 2, "Renew passport", TODAY.plusDays(1), "Bob", "bob@example.com"));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+
+		assertEquals(2, job.run(TODAY));
+
+		ArgumentCaptor<List<EmailOutboxMessage>> captor = ArgumentCaptor.captor();
+		verify(emailOutboxService, times(2)).enqueueAll(captor.capture());
+		EmailOutboxMessage ann = captor.getAllValues().get(0).get(0);
+		assertEquals("ann@example.com", ann.getRecipient());
+		assertEquals("Your tasks: 1 overdue, 1 due today, 1 due tomorrow", ann.getSubject());
+		assertTrue(ann.getBody().contains("Call &lt;plumber&gt;"));
+		EmailOutboxMessage bob = captor.getAllValues().get(1).get(0);
+		assertEquals("Your tasks: 1 due tomorrow", bob.getSubject());
+		assertEquals(3, pageQueries.size());
+	}
+
+	@Test
+	void skipsUsersAlreadyClaimedByAnotherRun() {
+		rows.add(row(1, 1, "File taxes", TODAY.minusDays(3), "Ann", "ann@example.com"));
+		when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0 });
+
+		assertEquals(0, job.run(TODAY));
+
+		verify(emailOutboxService).enqueueAll(List.of());
+	}
+
+	private static Object[] row(long id, long userId, String title, LocalDate dueDate, String name, String email) {
+		return new Object[] { id, userId, title, dueDate, name, email };
+	}
+
+	private static ResultSet resultSet(Object[] row) throws SQLException {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getLong("id")).thenReturn((Long) row[0]);
+		when(rs.getLong("user_id")).thenReturn((Long) row[1]);
+		when(rs.getString("title")).thenReturn((String) row[2]);
+		when(rs.getObject("due_date", LocalDate.class)).thenReturn((LocalDate) row[3]);
+		when(rs.getString("name")).thenReturn((String) row[4]);
+		when(rs.getString("email")).thenReturn((String) row[5]);
+		return rs;
+	}
+}
@@ -0,0 +1,92 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.taskpal.model.Role;
+import com.taskpal.model.User;
+import com.taskpal.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * An open task event stream is an async request that can last for half an hour; it must not keep a pooled
+ * connection checked out while it waits.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfEnvironmentVariable(named = "TASKPAL_TEST_DB_URL", matches = ".+")
+class TaskEventStreamConnectionTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private User user;
+
+	@DynamicPropertySource
+	static void database(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("TASKPAL_TEST_DB_URL"));
+		registry.add("spring.datasource.username",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_USER", "postgres"));
+		registry.add("spring.datasource.password",
+				() -> System.getenv().getOrDefault("TASKPAL_TEST_DB_PASSWORD", "postgres"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (user != null) {
+			userRepository.delete(user);
+		}
+	}
+
+	@Test
+	void openStreamHoldsNoConnection() throws Exception {
+		user = userRepository.save(User.builder()
+				.name("Streams")
+				.email("streams-" + UUID.randomUUID() + "@example.com")
+				.mobileNumber("0000000000")
+				.password("x")
+				.role(Role.ROLE_USER)
+				.emailVerified(true)
+				.createdAt(LocalDateTime.now())
+				.updatedAt(LocalDateTime.now())
+				.build());
+
+		MvcResult stream = mockMvc.perform(get("/api/tasks/events").with(user(user.getEmail())))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		try {
+			assertEquals(0, activeConnections());
+		} finally {
+			stream.getRequest().getAsyncContext().complete();
+		}
+	}
+
+	private double activeConnections() {
+		return meterRegistry.get("hikaricp.connections.active").gauges().stream()
+				.mapToDouble(gauge -> gauge.value())
+				.sum();
+	}
+}
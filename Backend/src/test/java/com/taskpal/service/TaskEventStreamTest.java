@@ -0,0 +1,185 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.taskpal.controller.TaskController;
+import com.taskpal.dto.TaskEventDto;
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.model.TaskEventType;
+import com.taskpal.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TaskEventStreamTest {
+
+	private static final Pattern EVENT_ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+
+	private contextService context;
+	private TaskEventStream stream;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		context = mock(contextService.class);
+		when(context.getCurrentUser()).thenReturn(User.builder().id(1L).email("ann@example.com").build());
+		stream = new TaskEventStream(context, new SimpleMeterRegistry(), Duration.ofMinutes(1), 2,
+				Duration.ofMinutes(10), 2, 16, Duration.ofSeconds(10));
+		mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(mock(TaskService.class), stream)).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		stream.shutdown();
+	}
+
+	@Test
+	void pushesOnlyTheOwnersChanges() throws Exception {
+		String body = open(null, () -> {
+			stream.onTaskChanged(changed(1L, TaskEventType.CREATED, 10L));
+			stream.onTaskChanged(changed(2L, TaskEventType.CREATED, 20L));
+			stream.onTaskChanged(changed(1L, TaskEventType.DELETED, 10L));
+		}, "event:DELETED");
+
+		assertTrue(body.contains("event:CREATED"));
+		assertTrue(body.contains("event:DELETED"));
+		assertFalse(body.contains("\"taskId\":20"));
+		assertEquals(1, stream.getConnections());
+	}
+
+	@Test
+	void reconnectingResumesAfterTheLastEventSeen() throws Exception {
+		List<String> ids = ids(open(null, () -> {
+			stream.onTaskChanged(changed(1L, TaskEventType.CREATED, 10L));
+			stream.onTaskChanged(changed(1L, TaskEventType.UPDATED, 10L));
+		}, "event:UPDATED"));
+
+		String resumed = open(ids.get(0), () -> {
+		}, "event:UPDATED");
+
+		assertEquals(List.of(ids.get(1)), ids(resumed));
+		assertTrue(resumed.contains("event:UPDATED"));
+	}
+
+	@Test
+	void askForAResyncWhenMissedEventsAreGone() throws Exception {
+		List<String> ids = ids(open(null, () -> stream.onTaskChanged(changed(1L, TaskEventType.CREATED, 10L)),
+				"event:CREATED"));
+		// The replay buffer holds two events, so the first one after the last seen is gone
+		stream.onTaskChanged(changed(1L, TaskEventType.UPDATED, 10L));
+		stream.onTaskChanged(changed(1L, TaskEventType.COMPLETED, 10L));
+		stream.onTaskChanged(changed(1L, TaskEventType.REORDERED, 10L));
+
+		assertTrue(open(ids.get(0), () -> {
+		}, "event:resync").contains("event:resync"));
+		assertTrue(open("another-node-7", () -> {
+		}, "event:resync").contains("event:resync"));
+	}
+
+	@Test
+	void dropsAStreamThatFallsBehindWithoutBlockingThePublisher() {
+		CountDownLatch release = new CountDownLatch(1);
+		TaskEventStream stalling = stalling(release, Duration.ofMinutes(1));
+		try {
+			stalling.subscribe(null);
+
+			assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+				for (int i = 0; i < 5; i++) {
+					stalling.onTaskChanged(changed(1L, TaskEventType.UPDATED, 10L));
+				}
+			});
+			assertEquals(0, stalling.getConnections());
+		} finally {
+			release.countDown();
+			stalling.shutdown();
+		}
+	}
+
+	@Test
+	void dropsAStreamStuckInAWrite() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		TaskEventStream stalling = stalling(release, Duration.ofMillis(10));
+		try {
+			stalling.subscribe(null);
+			stalling.onTaskChanged(changed(1L, TaskEventType.UPDATED, 10L));
+			Thread.sleep(100);
+
+			stalling.heartbeat();
+
+			assertEquals(0, stalling.getConnections());
+		} finally {
+			release.countDown();
+			stalling.shutdown();
+		}
+	}
+
+	// A stream with one sender thread and room for two queued events, whose client never reads
+	private TaskEventStream stalling(CountDownLatch release, Duration sendTimeout) {
+		return new TaskEventStream(context, new SimpleMeterRegistry(), Duration.ofMinutes(1), 2, Duration.ofMinutes(10),
+				1, 2, sendTimeout) {
+
+			@Override
+			SseEmitter createEmitter() {
+				return new SseEmitter() {
+
+					@Override
+					public void send(SseEventBuilder builder) throws IOException {
+						try {
+							release.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				};
+			}
+		};
+	}
+
+	// Opens a stream, runs the changes and returns what was written to it once it contains the expected text
+	private String open(String lastEventId, Runnable changes, String expected) throws Exception {
+		var request = get("/api/tasks/events");
+		if (lastEventId != null) {
+			request.header("Last-Event-ID", lastEventId);
+		}
+		var result = mockMvc.perform(request).andReturn();
+		changes.run();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		String body = result.getResponse().getContentAsString();
+		while (!body.contains(expected) && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+			body = result.getResponse().getContentAsString();
+		}
+		return body;
+	}
+
+	private static List<String> ids(String body) {
+		Matcher matcher = EVENT_ID.matcher(body);
+		return matcher.results().map(match -> match.group(1)).toList();
+	}
+
+	private static TaskChangedEvent changed(Long userId, TaskEventType type, Long taskId) {
+		TaskResponseDto task = new TaskResponseDto();
+		task.setId(taskId);
+		return new TaskChangedEvent(userId, new TaskEventDto(type, taskId, type == TaskEventType.DELETED ? null : task));
+	}
+}
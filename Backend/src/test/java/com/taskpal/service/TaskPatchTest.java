@@ -0,0 +1,121 @@
+package com.taskpal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskpal.dto.TaskEventDto;
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.exception.BadRequestException;
+import com.taskpal.exception.ConflictException;
+import com.taskpal.model.CalendarEventField;
+import com.taskpal.model.Task;
+import com.taskpal.model.TaskEventType;
+import com.taskpal.model.User;
+import com.taskpal.repository.TaskRepository;
+
+class TaskPatchTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final TaskRepository taskRepository = mock(TaskRepository.class);
+	private final CalendarOutboxService calendarOutboxService = mock(CalendarOutboxService.class);
+	private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+	private User user;
+	private Task task;
+	private Task subtask;
+	private TaskService taskService;
+
+	@BeforeEach
+	void setUp() {
+		user = User.builder().id(1L).email("ann@example.com").google(true).build();
+		task = new Task();
+		task.setId(10L);
+		task.setTitle("Report");
+		task.setDescription("Quarterly numbers");
+		task.setDueDate(LocalDate.of(2025, 3, 31));
+		task.setWeight(3);
+		task.setVersion(4);
+		task.setUser(user);
+		subtask = new Task();
+		subtask.setParentTask(task);
+		task.getSubtasks().add(subtask);
+
+		contextService context = mock(contextService.class);
+		when(context.getCurrentUser()).thenReturn(user);
+		when(taskRepository.findByIdAndUser(10L, user)).thenReturn(Optional.of(task));
+		when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		taskService = new TaskService(taskRepository, context, calendarOutboxService, eventPublisher);
+	}
+
+	@Test
+	void changesOnlyTheSuppliedFields() throws Exception {
+		TaskResponseDto patched = taskService.patchTask(10L, json("{\"title\": \"Annual report\", \"weight\": 5}"));
+
+		assertEquals("Annual report", patched.getTitle());
+		assertEquals(5, patched.getWeight());
+		assertEquals("Quarterly numbers", patched.getDescription());
+		assertEquals(LocalDate.of(2025, 3, 31), patched.getDueDate());
+		verify(calendarOutboxService).enqueueUpdate(user, task, EnumSet.of(CalendarEventField.TITLE));
+		verify(eventPublisher).publishEvent(
+				new TaskChangedEvent(1L, new TaskEventDto(TaskEventType.UPDATED, 10L, patched)));
+	}
+
+	@Test
+	void sideEffectsOnlyRunForChangedFields() throws Exception {
+		taskService.patchTask(10L, json("{\"title\": \"Report\", \"weight\": 1, \"completed\": false}"));
+
+		verify(calendarOutboxService).enqueueUpdate(user, task, EnumSet.noneOf(CalendarEventField.class));
+		verify(taskRepository, never()).save(subtask);
+		verify(eventPublisher).publishEvent(any(TaskChangedEvent.class));
+
+		taskService.patchTask(10L, json("{\"completed\": true}"));
+
+		assertTrue(subtask.isCompleted());
+		verify(taskRepository).save(subtask);
+	}
+
+	@Test
+	void patchThatChangesNothingIsNotWrittenOrPublished() throws Exception {
+		TaskResponseDto patched = taskService.patchTask(10L,
+				json("{\"title\": \"Report\", \"weight\": 3, \"completed\": false, \"version\": 4}"));
+
+		assertEquals(4, patched.getVersion());
+		verify(taskRepository, never()).saveAndFlush(any());
+		verifyNoInteractions(calendarOutboxService, eventPublisher);
+	}
+
+	@Test
+	void rejectsRemovalsUnknownFieldsAndStaleVersions() {
+		assertThrows(BadRequestException.class, () -> taskService.patchTask(10L, json("{\"title\": null}")));
+		assertThrows(BadRequestException.class, () -> taskService.patchTask(10L, json("{\"user\": 2}")));
+		assertThrows(BadRequestException.class, () -> taskService.patchTask(10L, json("{\"dueDate\": \"soon\"}")));
+		assertThrows(BadRequestException.class, () -> taskService.patchTask(10L, json("[]")));
+		assertThrows(ConflictException.class,
+				() -> taskService.patchTask(10L, json("{\"version\": 3, \"title\": \"Late\"}")));
+
+		assertEquals("Report", task.getTitle());
+		assertFalse(task.isCompleted());
+		verifyNoInteractions(eventPublisher);
+	}
+
+	private JsonNode json(String content) throws Exception {
+		return objectMapper.readTree(content);
+	}
+}
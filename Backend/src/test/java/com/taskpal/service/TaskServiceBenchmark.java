@@ -0,0 +1,86 @@
+package com.taskpal.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.taskpal.dto.TaskResponseDto;
+import com.taskpal.model.Task;
+
+/**
+ * JMH benchmark of the task list hot path: converting a task tree to response DTOs, and the priority score.
+ * <p>
+ * Not part of the default build; run with {@code mvn test -Pjmh}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskServiceBenchmark {
+
+	private int weight = 3;
+	private LocalDate dueDate = LocalDate.now().plusDays(5);
+
+	@Benchmark
+	public TaskResponseDto toResponse(Tree tree) {
+		return TaskService.toResponse(tree.root);
+	}
+
+	@Benchmark
+	public double calculatePriorityScore() {
+		return TaskService.calculatePriorityScore(weight, dueDate);
+	}
+
+	@State(Scope.Benchmark)
+	public static class Tree {
+
+		/**
+		 * WIDE is one task with many direct subtasks, DEEP a single chain of nested subtasks.
+		 */
+		@Param({ "WIDE", "DEEP" })
+		public String shape;
+
+		@Param({ "100" })
+		public int size;
+
+		private Task root;
+
+		@Setup
+		public void setUp() {
+			root = task(0);
+			Task parent = root;
+			for (int i = 1; i <= size; i++) {
+				Task child = task(i);
+				child.setParentTask(parent);
+				parent.getSubtasks().add(child);
+				if ("DEEP".equals(shape)) {
+					parent = child;
+				}
+			}
+		}
+	}
+
+	private static Task task(long id) {
+		Task task = new Task();
+		task.setId(id);
+		task.setTitle("Task " + id);
+		task.setDescription("Description of task " + id);
+		task.setDueDate(LocalDate.of(2025, 1, 1).plusDays(id % 60));
+		task.setWeight((int) (id % 5) + 1);
+		task.setPriorityScore((int) id);
+		return task;
+	}
+}
@@ -0,0 +1,429 @@
+package com.taskpal.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.taskpal.security.TokenBucket;
+
+/**
+ * In-process fake of the Google Calendar v3 events API and OAuth token endpoint, used to exercise
+ * calendar sync without Google.
+ * <p>
+ * Each bearer token owns its own primary calendar. Every change bumps a per-calendar sequence number and
+ * sync tokens are simply {@code "s<sequence>"}, so incremental listings return exactly the events changed
+ * since the token, including cancelled ones.
+ * <p>
+ * {@link Conditions} inject latency, random 5xx errors and a per-calendar request quota answered with 429,
+ * so load tests can reproduce a slow, flaky or throttled Google.
+ */
+public class FakeGoogleCalendarServer implements AutoCloseable {
+
+	private static final String EVENTS_PATH = "/calendar/v3/calendars/primary/events";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, FakeCalendar> calendars = new ConcurrentHashMap<>();
+	private final Map<String, FakeCalendar> calendarsByRefreshToken = new ConcurrentHashMap<>();
+	private final Set<String> revokedRefreshTokens = ConcurrentHashMap.newKeySet();
+	private final AtomicLong issuedTokens = new AtomicLong();
+	private final Stats stats = new Stats();
+	private final HttpServer server;
+	private volatile Conditions conditions = Conditions.healthy();
+
+	public FakeGoogleCalendarServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/calendar/v3/", this::handleEvents);
+		server.createContext("/token", this::handleToken);
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+	}
+
+	/**
+	 * Change the injected latency, errors and quota. Applies to requests arriving afterwards.
+	 */
+	public void setConditions(Conditions conditions) {
+		this.conditions = conditions;
+		calendars.values().forEach(calendar -> calendar.resetQuota(conditions));
+	}
+
+	public Stats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Root URL to configure as {@code google.calendar.root-url}.
+	 */
+	public String getRootUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+	}
+
+	/**
+	 * Token endpoint URL to configure as {@code google.oauth.token-url}.
+	 */
+	public String getTokenUrl() {
+		return getRootUrl() + "token";
+	}
+
+	/**
+	 * The calendar owned by the given access token.
+	 */
+	public FakeCalendar calendar(String accessToken) {
+		return calendars.computeIfAbsent(accessToken, token -> new FakeCalendar(conditions));
+	}
+
+	/**
+	 * The calendar owned by the given access token, reachable again with tokens refreshed from {@code refreshToken}.
+	 */
+	public FakeCalendar calendar(String accessToken, String refreshToken) {
+		FakeCalendar calendar = calendar(accessToken);
+		calendarsByRefreshToken.put(refreshToken, calendar);
+		return calendar;
+	}
+
+	/**
+	 * Revoke a refresh token, as when the user removes the app's access; refreshing it fails with
+	 * {@code invalid_grant}.
+	 */
+	public void revoke(String refreshToken) {
+		revokedRefreshTokens.add(refreshToken);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+
+	private void handleEvents(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String path = exchange.getRequestURI().getPath();
+			if (!path.startsWith(EVENTS_PATH)) {
+				send(exchange, 404, error(404, "Not Found"));
+				return;
+			}
+			String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			if (authorization == null || !authorization.startsWith("Bearer ")) {
+				send(exchange, 401, error(401, "Login Required"));
+				return;
+			}
+			FakeCalendar calendar = calendar(authorization.substring("Bearer ".length()));
+			if (!admit(exchange, calendar)) {
+				return;
+			}
+			String method = exchange.getRequestHeaders().getFirst("X-HTTP-Method-Override");
+			if (method == null) {
+				method = exchange.getRequestMethod();
+			}
+			String eventId = path.length() > EVENTS_PATH.length() + 1 ? path.substring(EVENTS_PATH.length() + 1) : null;
+
+			if (eventId == null && "GET".equals(method)) {
+				list(exchange, calendar, query(exchange));
+			} else if (eventId == null && "POST".equals(method)) {
+				send(exchange, 200, calendar.insert(readBody(exchange)));
+			} else if (eventId != null && "PATCH".equals(method)) {
+				Map<String, Object> event = calendar.patch(eventId, readBody(exchange));
+				send(exchange, event == null ? 404 : 200, event == null ? error(404, "Not Found") : event);
+			} else if (eventId != null && "GET".equals(method)) {
+				Map<String, Object> event = calendar.get(eventId);
+				send(exchange, event == null ? 404 : 200, event == null ? error(404, "Not Found") : event);
+			} else if (eventId != null && "DELETE".equals(method)) {
+				boolean deleted = calendar.delete(eventId);
+				if (deleted) {
+					exchange.sendResponseHeaders(204, -1);
+				} else {
+					send(exchange, 410, error(410, "Resource has been deleted"));
+				}
+			} else {
+				send(exchange, 405, error(405, "Method Not Allowed"));
+			}
+		}
+	}
+
+	private void handleToken(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			stats.requests.incrementAndGet();
+			delay();
+			Map<String, String> form;
+			try (InputStream in = exchange.getRequestBody()) {
+				form = parseQuery(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+			}
+			String refreshToken = form.get("refresh_token");
+			if (!"refresh_token".equals(form.get("grant_type")) || refreshToken == null) {
+				send(exchange, 400, Map.of("error", "unsupported_grant_type"));
+				return;
+			}
+			if (revokedRefreshTokens.contains(refreshToken)) {
+				send(exchange, 400, Map.of("error", "invalid_grant", "error_description", "Token has been expired or revoked."));
+				return;
+			}
+			String accessToken = "fake-access-" + issuedTokens.incrementAndGet();
+			FakeCalendar calendar = calendarsByRefreshToken.get(refreshToken);
+			if (calendar != null) {
+				calendars.put(accessToken, calendar);
+			}
+			send(exchange, 200, Map.of("access_token", accessToken, "token_type", "Bearer", "expires_in", 3600));
+		}
+	}
+
+	// Applies the injected conditions; returns false when the request was answered with an error
+	private boolean admit(HttpExchange exchange, FakeCalendar calendar) throws IOException {
+		stats.requests.incrementAndGet();
+		delay();
+		Conditions current = conditions;
+		if (!calendar.tryAcquireQuota()) {
+			stats.throttled.incrementAndGet();
+			send(exchange, 429, error(429, "Rate Limit Exceeded", "rateLimitExceeded"));
+			return false;
+		}
+		if (current.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < current.errorRate()) {
+			stats.errors.incrementAndGet();
+			send(exchange, 503, error(503, "Backend Error", "backendError"));
+			return false;
+		}
+		return true;
+	}
+
+	private void delay() {
+		Conditions current = conditions;
+		long millis = current.latency().toMillis();
+		if (current.latencyJitter().toMillis() > 0) {
+			millis += ThreadLocalRandom.current().nextLong(current.latencyJitter().toMillis() + 1);
+		}
+		if (millis > 0) {
+			try {
+				Thread.sleep(millis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void list(HttpExchange exchange, FakeCalendar calendar, Map<String, String> query) throws IOException {
+		int maxResults = Integer.parseInt(query.getOrDefault("maxResults", "250"));
+		int offset = query.containsKey("pageToken") ? Integer.parseInt(query.get("pageToken")) : 0;
+		String syncToken = query.get("syncToken");
+
+		List<Map<String, Object>> changes;
+		long currentSequence;
+		synchronized (calendar) {
+			if (syncToken != null && calendar.parseSyncToken(syncToken) < calendar.minimumSyncSequence) {
+				send(exchange, 410, error(410, "Sync token is no longer valid, a full sync is required."));
+				return;
+			}
+			changes = calendar.changesSince(syncToken == null ? -1 : calendar.parseSyncToken(syncToken));
+			currentSequence = calendar.sequence;
+		}
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("kind", "calendar#events");
+		body.put("items", changes.subList(Math.min(offset, changes.size()),
+				Math.min(offset + maxResults, changes.size())));
+		if (offset + maxResults < changes.size()) {
+			body.put("nextPageToken", String.valueOf(offset + maxResults));
+		} else {
+			body.put("nextSyncToken", "s" + currentSequence);
+		}
+		send(exchange, 200, body);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+		// The Google client gzips request bodies
+		boolean gzip = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+		try (InputStream in = gzip ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+			byte[] bytes = in.readAllBytes();
+			return bytes.length == 0 ? new HashMap<>() : objectMapper.readValue(bytes, Map.class);
+		}
+	}
+
+	private void send(HttpExchange exchange, int status, Object body) throws IOException {
+		byte[] bytes = objectMapper.writeValueAsBytes(body);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private Map<String, Object> error(int code, String message) {
+		return error(code, message, "fake");
+	}
+
+	private Map<String, Object> error(int code, String message, String reason) {
+		return Map.of("error", Map.of("code", code, "message", message,
+				"errors", List.of(Map.of("message", message, "reason", reason))));
+	}
+
+	private Map<String, String> query(HttpExchange exchange) {
+		return parseQuery(exchange.getRequestURI().getRawQuery());
+	}
+
+	private Map<String, String> parseQuery(String raw) {
+		Map<String, String> params = new HashMap<>();
+		if (raw != null && !raw.isEmpty()) {
+			for (String pair : raw.split("&")) {
+				int eq = pair.indexOf('=');
+				if (eq > 0) {
+					params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+							URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+				}
+			}
+		}
+		return params;
+	}
+
+	/**
+	 * Injected upstream behaviour.
+	 *
+	 * @param latency fixed delay added to every request
+	 * @param latencyJitter extra random delay, up to this much
+	 * @param errorRate fraction of Calendar requests answered with 503
+	 * @param requestsPerMinute per-calendar quota, 0 for unlimited; excess requests get 429
+	 */
+	public record Conditions(Duration latency, Duration latencyJitter, double errorRate, int requestsPerMinute) {
+
+		public static Conditions healthy() {
+			return new Conditions(Duration.ZERO, Duration.ZERO, 0, 0);
+		}
+	}
+
+	/**
+	 * Request counters across all calendars.
+	 */
+	public static class Stats {
+
+		private final AtomicLong requests = new AtomicLong();
+		private final AtomicLong throttled = new AtomicLong();
+		private final AtomicLong errors = new AtomicLong();
+
+		public long getRequests() {
+			return requests.get();
+		}
+
+		public long getThrottled() {
+			return throttled.get();
+		}
+
+		public long getErrors() {
+			return errors.get();
+		}
+
+		public void reset() {
+			requests.set(0);
+			throttled.set(0);
+			errors.set(0);
+		}
+	}
+
+	/**
+	 * One user's primary calendar.
+	 */
+	public static class FakeCalendar {
+
+		private final Map<String, Map<String, Object>> events = new LinkedHashMap<>();
+		private final Map<String, Long> changedAt = new HashMap<>();
+		private long sequence;
+		private long minimumSyncSequence;
+		private volatile TokenBucket quota;
+
+		private FakeCalendar(Conditions conditions) {
+			resetQuota(conditions);
+		}
+
+		private void resetQuota(Conditions conditions) {
+			int perMinute = conditions.requestsPerMinute();
+			quota = perMinute > 0 ? new TokenBucket(Math.max(1, perMinute / 60), perMinute) : null;
+		}
+
+		private boolean tryAcquireQuota() {
+			TokenBucket current = quota;
+			return current == null || current.tryConsume(System.nanoTime()) == 0;
+		}
+
+		public synchronized Map<String, Object> insert(Map<String, Object> event) {
+			Map<String, Object> stored = new LinkedHashMap<>(event);
+			stored.put("id", UUID.randomUUID().toString().replace("-", ""));
+			stored.put("status", "confirmed");
+			touch(stored);
+			return new LinkedHashMap<>(stored);
+		}
+
+		public synchronized Map<String, Object> patch(String eventId, Map<String, Object> fields) {
+			Map<String, Object> stored = events.get(eventId);
+			if (stored == null || "cancelled".equals(stored.get("status"))) {
+				return null;
+			}
+			stored.putAll(fields);
+			touch(stored);
+			return new LinkedHashMap<>(stored);
+		}
+
+		public synchronized Map<String, Object> get(String eventId) {
+			Map<String, Object> stored = events.get(eventId);
+			return stored == null ? null : new LinkedHashMap<>(stored);
+		}
+
+		public synchronized boolean delete(String eventId) {
+			Map<String, Object> stored = events.get(eventId);
+			if (stored == null || "cancelled".equals(stored.get("status"))) {
+				return false;
+			}
+			stored.put("status", "cancelled");
+			touch(stored);
+			return true;
+		}
+
+		/**
+		 * Number of events that are not cancelled.
+		 */
+		public synchronized int size() {
+			return (int) events.values().stream().filter(event -> !"cancelled".equals(event.get("status"))).count();
+		}
+
+		/**
+		 * Invalidate every sync token issued so far, forcing clients into a full sync.
+		 */
+		public synchronized void expireSyncTokens() {
+			minimumSyncSequence = sequence + 1;
+		}
+
+		private void touch(Map<String, Object> event) {
+			sequence++;
+			events.put((String) event.get("id"), event);
+			changedAt.put((String) event.get("id"), sequence);
+		}
+
+		private long parseSyncToken(String syncToken) {
+			return Long.parseLong(syncToken.substring(1));
+		}
+
+		private List<Map<String, Object>> changesSince(long sinceSequence) {
+			List<Map<String, Object>> changes = new ArrayList<>();
+			for (Map<String, Object> event : events.values()) {
+				boolean cancelled = "cancelled".equals(event.get("status"));
+				if (sinceSequence < 0 ? !cancelled : changedAt.get((String) event.get("id")) > sinceSequence) {
+					changes.add(new LinkedHashMap<>(event));
+				}
+			}
+			return changes;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package com.taskpal.support;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.taskpal.model.CalendarOutboxEvent;
+import com.taskpal.model.CalendarSyncOperation;
+import com.taskpal.model.Task;
+import com.taskpal.model.User;
+import com.taskpal.repository.CalendarOutboxRepository;
+import com.taskpal.repository.TaskRepository;
+import com.taskpal.repository.UserRepository;
+
+/**
+ * Map-backed stand-ins for the repositories on the calendar sync path, so the task and outbox services
+ * can run under load without a database. Only the methods used by task writes and the sync worker are
+ * implemented; the outbox claim mirrors the native query, including per-task ordering.
+ */
+public class InMemoryRepositories {
+
+	private final Map<Long, User> users = new ConcurrentHashMap<>();
+	private final Map<Long, Task> tasks = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListMap<Long, CalendarOutboxEvent> outbox = new ConcurrentSkipListMap<>();
+	private final AtomicLong taskIds = new AtomicLong();
+	private final AtomicLong outboxIds = new AtomicLong();
+
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TaskRepository taskRepository = mock(TaskRepository.class);
+	private final CalendarOutboxRepository outboxRepository = mock(CalendarOutboxRepository.class);
+
+	public InMemoryRepositories() {
+		when(userRepository.findById(anyLong()))
+				.thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<Long>getArgument(0))));
+
+		when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> {
+			Task task = invocation.getArgument(0);
+			if (task.getId() == null) {
+				task.setId(taskIds.incrementAndGet());
+			}
+			tasks.put(task.getId(), task);
+			return task;
+		});
+		when(taskRepository.findById(anyLong()))
+				.thenAnswer(invocation -> Optional.ofNullable(tasks.get(invocation.<Long>getArgument(0))));
+		when(taskRepository.findByIdAndUser(anyLong(), any(User.class))).thenAnswer(invocation -> {
+			Task task = tasks.get(invocation.<Long>getArgument(0));
+			User user = invocation.getArgument(1);
+			return Optional.ofNullable(task).filter(t -> Objects.equals(t.getUser().getId(), user.getId()));
+		});
+		when(taskRepository.findMaxPriorityScoreByUserId(anyLong())).thenAnswer(invocation -> tasks.values().stream()
+				.filter(task -> Objects.equals(task.getUser().getId(), invocation.getArgument(0)))
+				.map(Task::getPriorityScore)
+				.max(Integer::compare)
+				.orElse(null));
+		when(taskRepository.updateGoogleEventId(anyLong(), anyString())).thenAnswer(invocation -> {
+			Task task = tasks.get(invocation.<Long>getArgument(0));
+			synchronized (this) {
+				if (task == null || task.getGoogleEventId() != null) {
+					return 0;
+				}
+				task.setGoogleEventId(invocation.getArgument(1));
+				return 1;
+			}
+		});
+
+		when(outboxRepository.save(any(CalendarOutboxEvent.class))).thenAnswer(invocation -> {
+			CalendarOutboxEvent event = invocation.getArgument(0);
+			if (event.getId() == null) {
+				event.setId(outboxIds.incrementAndGet());
+				event.setCreatedAt(LocalDateTime.now());
+			}
+			outbox.put(event.getId(), event);
+			return event;
+		});
+		doAnswer(invocation -> outbox.remove(invocation.<Long>getArgument(0)))
+				.when(outboxRepository).deleteById(anyLong());
+		when(outboxRepository.lockDueEvents(any(LocalDateTime.class), anyInt()))
+				.thenAnswer(invocation -> lockDueEvents(invocation.getArgument(0), invocation.getArgument(1)));
+		when(outboxRepository.lockMergeableUpdate(anyLong()))
+				.thenAnswer(invocation -> lockMergeableUpdate(invocation.getArgument(0)));
+		when(outboxRepository.releaseDebouncedUpdates(any(LocalDateTime.class))).thenReturn(0);
+		when(outboxRepository.findPendingTaskIds(anyCollection())).thenAnswer(invocation -> {
+			Collection<Long> ids = invocation.getArgument(0);
+			return outbox.values().stream()
+					.filter(event -> !event.isFailed() && ids.contains(event.getTaskId()))
+					.map(CalendarOutboxEvent::getTaskId)
+					.collect(Collectors.toSet());
+		});
+		when(outboxRepository.countByFailedFalse())
+				.thenAnswer(invocation -> outbox.values().stream().filter(event -> !event.isFailed()).count());
+	}
+
+	// Same rules as the native merge query; synchronized in place of row locks
+	private synchronized Optional<CalendarOutboxEvent> lockMergeableUpdate(Long taskId) {
+		return outbox.descendingMap().values().stream()
+				.filter(event -> !event.isFailed() && event.getTaskId().equals(taskId))
+				.findFirst()
+				.filter(event -> event.getOperation() == CalendarSyncOperation.UPDATE)
+				.filter(event -> event.getAttempts() == 0 && event.getLockedUntil() == null);
+	}
+
+	// Same rules as the native claim query; synchronized in place of row locks
+	private synchronized List<CalendarOutboxEvent> lockDueEvents(LocalDateTime now, int limit) {
+		Set<Long> olderPending = new HashSet<>();
+		List<CalendarOutboxEvent> due = new ArrayList<>();
+		for (CalendarOutboxEvent event : outbox.values()) {
+			if (event.isFailed()) {
+				continue;
+			}
+			boolean first = olderPending.add(event.getTaskId());
+			boolean unlocked = event.getLockedUntil() == null || event.getLockedUntil().isBefore(now);
+			if (first && unlocked && !event.getNextAttemptAt().isAfter(now)) {
+				event.setLockedUntil(now.plusMinutes(1));
+				due.add(event);
+				if (due.size() == limit) {
+					break;
+				}
+			}
+		}
+		return due;
+	}
+
+	public User addUser(User user) {
+		users.put(user.getId(), user);
+		return user;
+	}
+
+	public Collection<Task> getTasks() {
+		return tasks.values();
+	}
+
+	public Collection<CalendarOutboxEvent> getOutbox() {
+		return outbox.values();
+	}
+
+	/**
+	 * Number of outbox rows ever inserted; debounced updates merged into an existing row are not counted.
+	 */
+	public long getOutboxRowsCreated() {
+		return outboxIds.get();
+	}
+
+	public UserRepository userRepository() {
+		return userRepository;
+	}
+
+	public TaskRepository taskRepository() {
+		return taskRepository;
+	}
+
+	public CalendarOutboxRepository outboxRepository() {
+		return outboxRepository;
+	}
+}
@@ -1,12 +1,45 @@
-import React, { createContext, useContext, useState, useEffect, useCallback } from 'react';
+import React, { createContext, useContext, useState, useEffect, useCallback, useRef } from 'react';
 import { toast } from 'sonner';
 import { differenceInDays } from 'date-fns';
 import useQuery from '@/hooks/useQuery';
 import useMutation from '@/hooks/useMutation';
 import { TASK_ENDPOINTS } from '@/imports/api/taskEndpoints';
+import { subscribeTaskEvents } from '@/imports/api/taskApi';
 
 const TaskContext = createContext();
 
+// Task fields the edit form can change through PATCH api/tasks/{id}
+const PATCHABLE_FIELDS = ['title', 'description', 'dueDate', 'weight'];
+
+// A task from an event with its nested subtasks, flattened like the list from GET api/tasks
+const flattenTask = (task) => [task, ...(task.subtasks || []).flatMap(flattenTask)];
+
+// Apply one change from the task event stream to the task list
+const applyTaskEvent = (tasks, event) => {
+  if (event.type === 'DELETED') {
+    const removed = new Set([event.taskId]);
+    let size;
+    do {
+      size = removed.size;
+      tasks.forEach((task) => {
+        if (removed.has(task.parentTaskId)) removed.add(task.id);
+      });
+    } while (removed.size !== size);
+    return tasks.filter((task) => !removed.has(task.id));
+  }
+  const updated = [...tasks];
+  flattenTask(event.task).forEach((task) => {
+    const index = updated.findIndex((existing) => existing.id === task.id);
+    if (index < 0) {
+      updated.push(task);
+    } else if (task.version >= (updated[index].version ?? 0)) {
+      // Replayed or late events never roll a task back
+      updated[index] = task;
+    }
+  });
+  return updated;
+};
+
 export const useTaskContext = () => {
   const context = useContext(TaskContext);
   if (!context) {
@@ -26,6 +59,17 @@ export const TaskProvider = ({ children }) => {
   // Use the useMutation hook for task operations
   const { mutate } = useMutation();
 
+  // Changes made in this and every other tab arrive on the task event stream, so the list is only fetched
+  // again when the stream asks for it
+  const refetchRef = useRef(refetchTasks);
+  refetchRef.current = refetchTasks;
+  useEffect(() => {
+    return subscribeTaskEvents(
+      (event) => setTasks((current) => applyTaskEvent(current, event)),
+      { onResync: () => refetchRef.current() }
+    );
+  }, []);
+
   // Set tasks from API data when it's loaded
   useEffect(() => {
     if (tasksData?.data?.data) {
@@ -130,8 +174,6 @@ export const TaskProvider = ({ children }) => {
       });
       
       if (response.success) {
-        // Refresh the task list
-        refetchTasks();
         return response.data;
       } else {
         throw new Error(response.error || 'Failed to create task');
@@ -140,49 +182,38 @@ export const TaskProvider = ({ children }) => {
       console.error('Error creating task:', error);
       throw error;
     }
-  }, [mutate, refetchTasks, tasks]);
+  }, [mutate, tasks]);
 
-  // Update an existing task using API
+  // Update an existing task using API. Only the fields that changed are sent, as a JSON merge patch, with
+  // the version they were edited from so a concurrent edit is rejected instead of overwritten
   const updateTask = useCallback(async (id, taskData) => {
     try {
-      // Get the current task
       const currentTask = tasks.find(task => task.id === id);
       if (!currentTask) {
         throw new Error('Task not found');
       }
-      
-      // Check if parent task ID is changing
-      const isParentChanging = taskData.parentTaskId !== undefined && 
-                              taskData.parentTaskId !== currentTask.parentTaskId;
-      
-      // Calculate new priority if parent is changing
-      let priority = currentTask.priority;
-      
-      if (isParentChanging) {
-        // If parent is changing, calculate new priority based on siblings count
-        if (taskData.parentTaskId) {
-          // Moving to be a child of another task
-          const newSiblings = tasks.filter(task => task.parentTaskId === taskData.parentTaskId);
-          priority = newSiblings.length;
-        } else {
-          // Moving to be a top-level task
-          const topLevelTasks = tasks.filter(task => !task.parentTaskId);
-          priority = topLevelTasks.length;
+
+      const changes = {};
+      PATCHABLE_FIELDS.forEach((field) => {
+        if (taskData[field] !== undefined && taskData[field] !== currentTask[field]) {
+          changes[field] = taskData[field];
         }
+      });
+      if (Object.keys(changes).length === 0) {
+        return currentTask;
       }
-      
+      if (currentTask.version !== undefined) {
+        changes.version = currentTask.version;
+      }
+
       const response = await mutate({
-        url: TASK_ENDPOINTS.UPDATE_TASK(id),
-        method: 'PUT',
-        data: {
-          ...taskData,
-          priority: priority
-        }
+        url: TASK_ENDPOINTS.PATCH_TASK(id),
+        method: 'PATCH',
+        contentType: 'application/merge-patch+json',
+        data: changes
       });
       
       if (response.success) {
-        // Refresh the task list
-        refetchTasks();
         return response.data;
       } else {
         throw new Error(response.error || 'Failed to update task');
@@ -191,7 +222,7 @@ export const TaskProvider = ({ children }) => {
       console.error('Error updating task:', error);
       throw error;
     }
-  }, [mutate, refetchTasks, tasks]);
+  }, [mutate, tasks]);
 
   // Delete a task using API
   const deleteTask = useCallback(async (id) => {
@@ -202,8 +233,6 @@ export const TaskProvider = ({ children }) => {
       });
       
       if (response.success) {
-        // Refresh the task list
-        refetchTasks();
         return response.data;
       } else {
         throw new Error(response.error || 'Failed to delete task');
@@ -212,7 +241,7 @@ export const TaskProvider = ({ children }) => {
       console.error('Error deleting task:', error);
       throw error;
     }
-  }, [mutate, refetchTasks]);
+  }, [mutate]);
 
   // Get a task by ID
   const getTaskById = useCallback((id) => {
@@ -243,8 +272,6 @@ export const TaskProvider = ({ children }) => {
       });
       
       if (response.success) {
-        // Refresh the task list
-        refetchTasks();
         return response.data;
       } else {
         throw new Error(response.error || 'Failed to toggle task completion');
@@ -253,7 +280,7 @@ export const TaskProvider = ({ children }) => {
       console.error('Error toggling task completion:', error);
       throw error;
     }
-  }, [mutate, refetchTasks, tasks]);
+  }, [mutate, tasks]);
 
   // Reorder tasks (for drag and drop) using API
   const reorderTasks = useCallback(async (sourceId, destinationId, parentTaskId = null) => {
@@ -298,8 +325,6 @@ export const TaskProvider = ({ children }) => {
       });
       
       if (response.success) {
-        // Refresh the task list
-        refetchTasks();
         return response.data;
       } else {
         throw new Error(response.error || 'Failed to reorder tasks');
@@ -308,7 +333,7 @@ export const TaskProvider = ({ children }) => {
       console.error('Error reordering tasks:', error);
       throw error;
     }
-  }, [mutate, refetchTasks, tasks]);
+  }, [mutate, tasks]);
 
   // Create a subtask
   const createSubtask = useCallback((parentTaskId, taskData) => {
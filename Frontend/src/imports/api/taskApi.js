@@ -1,5 +1,6 @@
 import axios from 'axios';
 import BACKEND_URL from '../baseUrl';
+import { getToken } from '../localStorage';
 
 const API_URL = BACKEND_URL;
 
@@ -96,4 +97,73 @@ export const reorderTasksApi = async (reorderData) => {
   }
 };
 
+// Stream of the user's task changes from GET api/tasks/events. EventSource cannot send the Authorization
+// header, so the stream is read with fetch. A dropped stream reconnects with Last-Event-ID and is sent what
+// it missed; onResync is called when the list has to be fetched again instead, including on a fresh stream.
+// Returns a function that closes the stream.
+export const subscribeTaskEvents = (onEvent, { onResync } = {}) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+  let retryDelay = 1000;
+
+  const dispatch = (block) => {
+    let name = 'message';
+    let data = '';
+    block.split('\n').forEach((line) => {
+      if (!line || line.startsWith(':')) return; // heartbeat
+      const colon = line.indexOf(':');
+      const field = colon < 0 ? line : line.slice(0, colon);
+      const value = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+      if (field === 'id') lastEventId = value;
+      else if (field === 'event') name = value;
+      else if (field === 'data') data += (data ? '\n' : '') + value;
+    });
+    if (name === 'resync') {
+      onResync?.();
+    } else if (data) {
+      onEvent(JSON.parse(data));
+    }
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers = { Authorization: `Bearer ${getToken()}` };
+        if (lastEventId) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        const response = await fetch(`${API_URL}api/tasks/events`, { headers, signal: controller.signal });
+        if (!response.ok) {
+          throw new Error(`Task event stream failed with status ${response.status}`);
+        }
+        if (!lastEventId) {
+          // Nothing to resume from; load the list now that no change can be missed
+          onResync?.();
+        }
+        retryDelay = 1000;
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) break;
+          buffer += value.replace(/\r\n?/g, '\n');
+          let end;
+          while ((end = buffer.indexOf('\n\n')) >= 0) {
+            dispatch(buffer.slice(0, end));
+            buffer = buffer.slice(end + 2);
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) return;
+        console.error('Task event stream interrupted:', error);
+      }
+      await new Promise((resolve) => setTimeout(resolve, retryDelay));
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+};
+
 export default taskApi;
@@ -4,6 +4,7 @@ export const TASK_ENDPOINTS = {
   GET_TASK_BY_ID: (id) => `api/tasks/${id}`,
   CREATE_TASK: 'api/tasks',
   UPDATE_TASK: (id) => `api/tasks/${id}`,
+  PATCH_TASK: (id) => `api/tasks/${id}`,
   DELETE_TASK: (id) => `api/tasks/${id}`,
   TOGGLE_TASK_COMPLETION: (id,complete=true) => `api/tasks/${id}/${complete}`,
   REORDER_TASKS: (sourceId,destinationId,parentTaskId = null) => `api/tasks/reorder?sourceId=${sourceId}&destinationId=${destinationId}`